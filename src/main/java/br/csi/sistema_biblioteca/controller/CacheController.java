@@ -0,0 +1,39 @@
+package br.csi.sistema_biblioteca.controller;
+
+import br.csi.sistema_biblioteca.infra.EstatisticasCache;
+import br.csi.sistema_biblioteca.service.CacheSegundoNivelService;
+import br.csi.sistema_biblioteca.service.ResolvedorUuid;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/cache")
+@RequiredArgsConstructor
+@Tag(name = "Cache", description = "Estatísticas do cache de segundo nível do Hibernate e do cache de UUIDs")
+public class CacheController {
+
+    private final CacheSegundoNivelService cacheSegundoNivelService;
+    private final ResolvedorUuid resolvedorUuid;
+
+    @Operation(summary = "Estatísticas do cache", description = "Comandos SQL executados e acertos/falhas do cache de segundo nível e de consultas, no total e por região")
+    @GetMapping("/estatisticas")
+    public ResponseEntity<CacheSegundoNivelService.EstatisticasSegundoNivel> estatisticas() {
+        return ResponseEntity.ok(cacheSegundoNivelService.estatisticas());
+    }
+
+    @Operation(summary = "Zerar estatísticas do cache", description = "Zera os contadores para medir uma carga específica")
+    @DeleteMapping("/estatisticas")
+    public ResponseEntity<Void> zerarEstatisticas() {
+        cacheSegundoNivelService.zerarEstatisticas();
+        return ResponseEntity.noContent().build();
+    }
+
+    @Operation(summary = "Estatísticas do cache de UUIDs", description = "Acertos e falhas da tradução de UUID público para ID usada pelas rotas /uuid/")
+    @GetMapping("/uuid/estatisticas")
+    public ResponseEntity<EstatisticasCache> estatisticasUuid() {
+        return ResponseEntity.ok(resolvedorUuid.estatisticas());
+    }
+}
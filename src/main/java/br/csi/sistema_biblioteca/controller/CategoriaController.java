@@ -1,6 +1,9 @@
 package br.csi.sistema_biblioteca.controller;
 
+import br.csi.sistema_biblioteca.infra.EstatisticasCache;
+import br.csi.sistema_biblioteca.infra.RespostaCondicional;
 import br.csi.sistema_biblioteca.model.livro_categoria.Categoria;
+import br.csi.sistema_biblioteca.model.livro_categoria.CategoriaDTO;
 import br.csi.sistema_biblioteca.service.CategoriaService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -13,6 +16,7 @@ import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.util.UriComponentsBuilder;
 
 import java.util.List;
@@ -28,33 +32,32 @@ public class CategoriaController {
 
     @Operation(summary = "Listar todas as categorias", description = "Retorna todas as categorias cadastradas")
     @GetMapping
-    public ResponseEntity<List<Categoria>> listarTodas() {
-        List<Categoria> categorias = categoriaService.listarTodas();
-        return ResponseEntity.ok(categorias);
+    public ResponseEntity<List<CategoriaDTO>> listarTodas(WebRequest request) {
+        return RespostaCondicional.responderColecao(request, () -> paraDTO(categoriaService.listarTodas()), categoriaService.versaoCategorias());
     }
 
     @Operation(summary = "Buscar categoria por ID", description = "Busca uma categoria pelo ID")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Categoria encontrada",
-                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = Categoria.class))),
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = CategoriaDTO.class))),
             @ApiResponse(responseCode = "404", description = "Categoria não encontrada")
     })
     @GetMapping("/{id}")
-    public ResponseEntity<Categoria> buscarPorId(@Parameter(description = "ID da categoria") @PathVariable Long id) {
-        Categoria categoria = categoriaService.buscarPorId(id);
-        return ResponseEntity.ok(categoria);
+    public ResponseEntity<CategoriaDTO> buscarPorId(@Parameter(description = "ID da categoria") @PathVariable Long id,
+                                                 WebRequest request) {
+        return RespostaCondicional.responder(request, () -> CategoriaDTO.de(categoriaService.buscarPorId(id)), categoriaService.versaoCategoria(id));
     }
 
     @Operation(summary = "Buscar categoria por UUID", description = "Busca uma categoria pelo UUID público")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Categoria encontrada",
-                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = Categoria.class))),
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = CategoriaDTO.class))),
             @ApiResponse(responseCode = "404", description = "Categoria não encontrada")
     })
     @GetMapping("/uuid/{uuid}")
-    public ResponseEntity<Categoria> buscarPorUuid(@Parameter(description = "UUID público da categoria") @PathVariable UUID uuid) {
-        Categoria categoria = categoriaService.buscarPorUuid(uuid);
-        return ResponseEntity.ok(categoria);
+    public ResponseEntity<CategoriaDTO> buscarPorUuid(@Parameter(description = "UUID público da categoria") @PathVariable UUID uuid,
+                                                   WebRequest request) {
+        return RespostaCondicional.responder(request, () -> CategoriaDTO.de(categoriaService.buscarPorUuid(uuid)), categoriaService.versaoCategoriaPorUuid(uuid));
     }
 
     @Operation(summary = "Buscar categorias por nome", description = "Busca categorias por nome (busca parcial)")
@@ -62,61 +65,61 @@ public class CategoriaController {
             @ApiResponse(responseCode = "200", description = "Categorias encontradas")
     })
     @GetMapping("/buscar")
-    public ResponseEntity<List<Categoria>> buscarPorNome(@Parameter(description = "Nome da categoria para busca") @RequestParam String nome) {
+    public ResponseEntity<List<CategoriaDTO>> buscarPorNome(@Parameter(description = "Nome da categoria para busca") @RequestParam String nome) {
         List<Categoria> categorias = categoriaService.buscarPorNomeParcial(nome);
-        return ResponseEntity.ok(categorias);
+        return ResponseEntity.ok(paraDTO(categorias));
     }
 
     @Operation(summary = "Buscar categoria por nome exato", description = "Busca uma categoria pelo nome exato")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Categoria encontrada",
-                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = Categoria.class))),
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = CategoriaDTO.class))),
             @ApiResponse(responseCode = "404", description = "Categoria não encontrada")
     })
     @GetMapping("/nome/{nome}")
-    public ResponseEntity<Categoria> buscarPorNomeExato(@Parameter(description = "Nome exato da categoria") @PathVariable String nome) {
+    public ResponseEntity<CategoriaDTO> buscarPorNomeExato(@Parameter(description = "Nome exato da categoria") @PathVariable String nome) {
         Categoria categoria = categoriaService.buscarPorNome(nome);
-        return ResponseEntity.ok(categoria);
+        return ResponseEntity.ok(CategoriaDTO.de(categoria));
     }
 
     @Operation(summary = "Cadastrar categoria", description = "Cria uma nova categoria no sistema")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "201", description = "Categoria criada com sucesso",
-                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = Categoria.class))),
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = CategoriaDTO.class))),
             @ApiResponse(responseCode = "400", description = "Dados inválidos fornecidos")
     })
     @PostMapping
-    public ResponseEntity<Categoria> salvar(@RequestBody @Valid Categoria categoria,
+    public ResponseEntity<CategoriaDTO> salvar(@RequestBody @Valid Categoria categoria,
                                             UriComponentsBuilder uriBuilder) {
         Categoria categoriaSalva = categoriaService.salvar(categoria);
         var uri = uriBuilder.path("/categorias/{id}").buildAndExpand(categoriaSalva.getId()).toUri();
-        return ResponseEntity.created(uri).body(categoriaSalva);
+        return ResponseEntity.created(uri).body(CategoriaDTO.de(categoriaSalva));
     }
 
     @Operation(summary = "Atualizar categoria por ID", description = "Atualiza os dados de uma categoria existente")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Categoria atualizada com sucesso",
-                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = Categoria.class))),
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = CategoriaDTO.class))),
             @ApiResponse(responseCode = "404", description = "Categoria não encontrada")
     })
     @PutMapping("/{id}")
-    public ResponseEntity<Categoria> atualizar(@Parameter(description = "ID da categoria") @PathVariable Long id,
+    public ResponseEntity<CategoriaDTO> atualizar(@Parameter(description = "ID da categoria") @PathVariable Long id,
                                                @RequestBody @Valid Categoria categoria) {
         Categoria categoriaAtualizada = categoriaService.atualizar(id, categoria);
-        return ResponseEntity.ok(categoriaAtualizada);
+        return ResponseEntity.ok(CategoriaDTO.de(categoriaAtualizada));
     }
 
     @Operation(summary = "Atualizar categoria por UUID", description = "Atualiza os dados de uma categoria existente usando UUID público")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Categoria atualizada com sucesso",
-                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = Categoria.class))),
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = CategoriaDTO.class))),
             @ApiResponse(responseCode = "404", description = "Categoria não encontrada")
     })
     @PutMapping("/uuid/{uuid}")
-    public ResponseEntity<Categoria> atualizarPorUuid(@Parameter(description = "UUID público da categoria") @PathVariable UUID uuid,
+    public ResponseEntity<CategoriaDTO> atualizarPorUuid(@Parameter(description = "UUID público da categoria") @PathVariable UUID uuid,
                                                       @RequestBody @Valid Categoria categoria) {
         Categoria categoriaAtualizada = categoriaService.atualizarPorUuid(uuid, categoria);
-        return ResponseEntity.ok(categoriaAtualizada);
+        return ResponseEntity.ok(CategoriaDTO.de(categoriaAtualizada));
     }
 
     @Operation(summary = "Excluir categoria", description = "Remove permanentemente uma categoria do sistema")
@@ -142,4 +145,14 @@ public class CategoriaController {
         categoriaService.excluirPorUuid(uuid);
         return ResponseEntity.noContent().build();
     }
+
+    @Operation(summary = "Estatísticas do cache de categorias", description = "Acertos, falhas e tamanho de cada cache local de categorias")
+    @GetMapping("/cache/estatisticas")
+    public ResponseEntity<List<EstatisticasCache>> estatisticasCache() {
+        return ResponseEntity.ok(categoriaService.estatisticasCache());
+    }
+
+    private static List<CategoriaDTO> paraDTO(List<Categoria> categorias) {
+        return categorias.stream().map(CategoriaDTO::de).toList();
+    }
 }
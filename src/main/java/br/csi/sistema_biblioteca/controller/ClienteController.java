@@ -1,7 +1,8 @@
 package br.csi.sistema_biblioteca.controller;
 
 import br.csi.sistema_biblioteca.model.cliente.Cliente;
-import br.csi.sistema_biblioteca.model.cliente.ClienteRepository;
+import br.csi.sistema_biblioteca.model.cliente.ClienteDTO;
+import br.csi.sistema_biblioteca.service.ClienteService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -24,124 +25,87 @@ import java.util.UUID;
 @Tag(name = "Clientes", description = "Path relacionado a operações de clientes")
 public class ClienteController {
 
-    private final ClienteRepository clienteRepository;
+    private final ClienteService clienteService;
 
     @Operation(summary = "Listar todos os clientes", description = "Retorna todos os clientes cadastrados")
     @GetMapping
-    public ResponseEntity<List<Cliente>> listarTodos() {
-        List<Cliente> clientes = clienteRepository.findAll();
-        return ResponseEntity.ok(clientes);
+    public ResponseEntity<List<ClienteDTO>> listarTodos() {
+        List<Cliente> clientes = clienteService.listarTodos();
+        return ResponseEntity.ok(clientes.stream().map(ClienteDTO::de).toList());
     }
 
     @Operation(summary = "Buscar cliente por ID", description = "Busca um cliente pelo ID")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Cliente encontrado",
-                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = Cliente.class))),
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = ClienteDTO.class))),
             @ApiResponse(responseCode = "404", description = "Cliente não encontrado")
     })
     @GetMapping("/{id}")
-    public ResponseEntity<Cliente> buscarPorId(@Parameter(description = "ID do cliente") @PathVariable Long id) {
-        Cliente cliente = clienteRepository.findById(id)
-                .orElseThrow(() -> new RuntimeException("Cliente não encontrado"));
-        return ResponseEntity.ok(cliente);
+    public ResponseEntity<ClienteDTO> buscarPorId(@Parameter(description = "ID do cliente") @PathVariable Long id) {
+        Cliente cliente = clienteService.buscarPorId(id);
+        return ResponseEntity.ok(ClienteDTO.de(cliente));
     }
 
     @Operation(summary = "Buscar cliente por UUID", description = "Busca um cliente pelo UUID")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Cliente encontrado",
-                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = Cliente.class))),
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = ClienteDTO.class))),
             @ApiResponse(responseCode = "404", description = "Cliente não encontrado")
     })
     @GetMapping("/uuid/{uuid}")
-    public ResponseEntity<Cliente> buscarPorUuid(@Parameter(description = "UUID do cliente") @PathVariable UUID uuid) {
-        Cliente cliente = clienteRepository.findByUuid(uuid)
-                .orElseThrow(() -> new RuntimeException("Cliente não encontrado"));
-        return ResponseEntity.ok(cliente);
+    public ResponseEntity<ClienteDTO> buscarPorUuid(@Parameter(description = "UUID do cliente") @PathVariable UUID uuid) {
+        Cliente cliente = clienteService.buscarPorUuid(uuid);
+        return ResponseEntity.ok(ClienteDTO.de(cliente));
     }
 
     @Operation(summary = "Buscar cliente por CPF", description = "Busca um cliente pelo CPF")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Cliente encontrado",
-                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = Cliente.class))),
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = ClienteDTO.class))),
             @ApiResponse(responseCode = "404", description = "Cliente não encontrado")
     })
     @GetMapping("/cpf/{cpf}")
-    public ResponseEntity<Cliente> buscarPorCpf(@Parameter(description = "CPF do cliente") @PathVariable String cpf) {
-        Cliente cliente = clienteRepository.findByCpf(cpf)
-                .orElseThrow(() -> new RuntimeException("Cliente não encontrado"));
-        return ResponseEntity.ok(cliente);
+    public ResponseEntity<ClienteDTO> buscarPorCpf(@Parameter(description = "CPF do cliente") @PathVariable String cpf) {
+        Cliente cliente = clienteService.buscarPorCpf(cpf);
+        return ResponseEntity.ok(ClienteDTO.de(cliente));
     }
 
     @Operation(summary = "Cadastrar cliente", description = "Cria um novo cliente no sistema")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "201", description = "Cliente criado com sucesso",
-                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = Cliente.class))),
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = ClienteDTO.class))),
             @ApiResponse(responseCode = "400", description = "Dados inválidos fornecidos")
     })
     @PostMapping
-    public ResponseEntity<Cliente> salvar(@RequestBody @Valid Cliente cliente, UriComponentsBuilder uriBuilder) {
-        if (clienteRepository.findByCpf(cliente.getCpf()).isPresent()) {
-            throw new RuntimeException("CPF já cadastrado");
-        }
-
-        Cliente clienteSalvo = clienteRepository.save(cliente);
+    public ResponseEntity<ClienteDTO> salvar(@RequestBody @Valid Cliente cliente, UriComponentsBuilder uriBuilder) {
+        Cliente clienteSalvo = clienteService.salvar(cliente);
         var uri = uriBuilder.path("/clientes/{id}").buildAndExpand(clienteSalvo.getId()).toUri();
-        return ResponseEntity.created(uri).body(clienteSalvo);
+        return ResponseEntity.created(uri).body(ClienteDTO.de(clienteSalvo));
     }
 
     @Operation(summary = "Atualizar cliente por ID", description = "Atualiza os dados de um cliente existente")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Cliente atualizado com sucesso",
-                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = Cliente.class))),
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = ClienteDTO.class))),
             @ApiResponse(responseCode = "404", description = "Cliente não encontrado")
     })
     @PutMapping("/{id}")
-    public ResponseEntity<Cliente> atualizar(@Parameter(description = "ID do cliente") @PathVariable Long id,
+    public ResponseEntity<ClienteDTO> atualizar(@Parameter(description = "ID do cliente") @PathVariable Long id,
                                              @RequestBody @Valid Cliente cliente) {
-        Cliente clienteExistente = clienteRepository.findById(id)
-                .orElseThrow(() -> new RuntimeException("Cliente não encontrado"));
-
-        // Verificar se o CPF já existe em outro cliente
-        clienteRepository.findByCpf(cliente.getCpf()).ifPresent(clienteComCpf -> {
-            if (!clienteComCpf.getId().equals(id)) {
-                throw new RuntimeException("CPF já cadastrado para outro cliente");
-            }
-        });
-
-        clienteExistente.setNome(cliente.getNome());
-        clienteExistente.setCpf(cliente.getCpf());
-        clienteExistente.setTelefone(cliente.getTelefone());
-        clienteExistente.setEndereco(cliente.getEndereco());
-
-        Cliente clienteAtualizado = clienteRepository.save(clienteExistente);
-        return ResponseEntity.ok(clienteAtualizado);
+        Cliente clienteAtualizado = clienteService.atualizar(id, cliente);
+        return ResponseEntity.ok(ClienteDTO.de(clienteAtualizado));
     }
 
     @Operation(summary = "Atualizar cliente por UUID", description = "Atualiza os dados de um cliente existente usando UUID")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Cliente atualizado com sucesso",
-                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = Cliente.class))),
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = ClienteDTO.class))),
             @ApiResponse(responseCode = "404", description = "Cliente não encontrado")
     })
     @PutMapping("/uuid")
-    public ResponseEntity<Cliente> atualizarPorUuid(@RequestBody @Valid Cliente cliente) {
-        Cliente clienteExistente = clienteRepository.findByUuid(cliente.getUuid())
-                .orElseThrow(() -> new RuntimeException("Cliente não encontrado"));
-
-        // Verificar se o CPF já existe em outro cliente
-        clienteRepository.findByCpf(cliente.getCpf()).ifPresent(clienteComCpf -> {
-            if (!clienteComCpf.getUuid().equals(cliente.getUuid())) {
-                throw new RuntimeException("CPF já cadastrado para outro cliente");
-            }
-        });
-
-        clienteExistente.setNome(cliente.getNome());
-        clienteExistente.setCpf(cliente.getCpf());
-        clienteExistente.setTelefone(cliente.getTelefone());
-        clienteExistente.setEndereco(cliente.getEndereco());
-
-        Cliente clienteAtualizado = clienteRepository.save(clienteExistente);
-        return ResponseEntity.ok(clienteAtualizado);
+    public ResponseEntity<ClienteDTO> atualizarPorUuid(@RequestBody @Valid Cliente cliente) {
+        Cliente clienteAtualizado = clienteService.atualizarPorUuid(cliente);
+        return ResponseEntity.ok(ClienteDTO.de(clienteAtualizado));
     }
 
     @Operation(summary = "Excluir cliente", description = "Remove permanentemente um cliente do sistema")
@@ -152,15 +116,7 @@ public class ClienteController {
     })
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> excluir(@Parameter(description = "ID do cliente") @PathVariable Long id) {
-        Cliente cliente = clienteRepository.findById(id)
-                .orElseThrow(() -> new RuntimeException("Cliente não encontrado"));
-
-        // Verificar se o cliente possui empréstimos ativos
-        if (clienteRepository.hasEmprestimosAtivos(id)) {
-            throw new RuntimeException("Cliente possui empréstimos ativos e não pode ser excluído");
-        }
-
-        clienteRepository.delete(cliente);
+        clienteService.excluir(id);
         return ResponseEntity.noContent().build();
     }
 
@@ -172,15 +128,7 @@ public class ClienteController {
     })
     @DeleteMapping("/uuid/{uuid}")
     public ResponseEntity<Void> excluirPorUuid(@Parameter(description = "UUID do cliente") @PathVariable UUID uuid) {
-        Cliente cliente = clienteRepository.findByUuid(uuid)
-                .orElseThrow(() -> new RuntimeException("Cliente não encontrado"));
-
-        // Verificar se o cliente possui empréstimos ativos
-        if (clienteRepository.hasEmprestimosAtivosByUuid(uuid)) {
-            throw new RuntimeException("Cliente possui empréstimos ativos e não pode ser excluído");
-        }
-
-        clienteRepository.delete(cliente);
+        clienteService.excluirPorUuid(uuid);
         return ResponseEntity.noContent().build();
     }
 }
\ No newline at end of file
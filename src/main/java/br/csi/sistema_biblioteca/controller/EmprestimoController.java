@@ -1,19 +1,34 @@
 package br.csi.sistema_biblioteca.controller;
 
 import br.csi.sistema_biblioteca.model.emprestimo.Emprestimo;
+import br.csi.sistema_biblioteca.model.emprestimo.EmprestimoDTO;
+import br.csi.sistema_biblioteca.model.emprestimo.EmprestimoResumo;
+import br.csi.sistema_biblioteca.model.emprestimo.ItemEmprestimoLote;
+import br.csi.sistema_biblioteca.model.emprestimo.PaginaEmprestimos;
+import br.csi.sistema_biblioteca.model.emprestimo.ResultadoDevolucaoLote;
 import br.csi.sistema_biblioteca.service.EmprestimoService;
+import br.csi.sistema_biblioteca.service.ExportacaoService;
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
 import jakarta.validation.constraints.NotNull;
 import lombok.RequiredArgsConstructor;
+import org.springdoc.core.annotations.ParameterObject;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.web.PageableDefault;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.springframework.web.util.UriComponentsBuilder;
 
 import java.util.List;
+import java.util.UUID;
 
 @RestController
 @RequestMapping("/emprestimos")
@@ -22,6 +37,7 @@ import java.util.List;
 public class EmprestimoController {
 
     private final EmprestimoService emprestimoService;
+    private final ExportacaoService exportacaoService;
 
     @Operation(summary = "Realizar empréstimo", description = "Registra um novo empréstimo de livro")
     @ApiResponses(value = {
@@ -30,7 +46,7 @@ public class EmprestimoController {
             @ApiResponse(responseCode = "404", description = "Cliente, livro ou funcionário não encontrado")
     })
     @PostMapping
-    public ResponseEntity<Emprestimo> realizarEmprestimo(
+    public ResponseEntity<EmprestimoDTO> realizarEmprestimo(
             @RequestBody @Valid EmprestimoRequest request,
             UriComponentsBuilder uriBuilder) {
 
@@ -41,7 +57,23 @@ public class EmprestimoController {
         );
 
         var uri = uriBuilder.path("/emprestimos/{id}").buildAndExpand(emprestimo.getId()).toUri();
-        return ResponseEntity.created(uri).body(emprestimo);
+        return ResponseEntity.created(uri).body(EmprestimoDTO.de(emprestimo));
+    }
+
+    @Operation(summary = "Realizar empréstimo em lote", description = "Empresta vários livros para um cliente em uma única transação, informando o resultado de cada item")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Lote processado; verifique o resultado de cada item"),
+            @ApiResponse(responseCode = "400", description = "Dados inválidos ou funcionário inativo"),
+            @ApiResponse(responseCode = "404", description = "Cliente não encontrado")
+    })
+    @PostMapping("/lote")
+    public ResponseEntity<List<ItemEmprestimoLote>> realizarEmprestimoEmLote(@RequestBody @Valid EmprestimoLoteRequest request) {
+        List<ItemEmprestimoLote> resultado = emprestimoService.realizarEmprestimoEmLote(
+                request.clienteId(),
+                request.funcionarioId(),
+                request.livroUuids()
+        );
+        return ResponseEntity.ok(resultado);
     }
 
     @Operation(summary = "Registrar devolução", description = "Registra a devolução de um livro emprestado")
@@ -51,53 +83,85 @@ public class EmprestimoController {
             @ApiResponse(responseCode = "404", description = "Empréstimo ou funcionário não encontrado")
     })
     @PutMapping("/{id}/devolucao")
-    public ResponseEntity<Emprestimo> registrarDevolucao(
+    public ResponseEntity<EmprestimoDTO> registrarDevolucao(
             @PathVariable Long id,
             @RequestBody @Valid DevolucaoRequest request) {
 
         Emprestimo emprestimo = emprestimoService.registrarDevolucao(id, request.funcionarioId());
-        return ResponseEntity.ok(emprestimo);
+        return ResponseEntity.ok(EmprestimoDTO.de(emprestimo));
+    }
+
+    @Operation(summary = "Registrar devolução em lote", description = "Registra a devolução de vários empréstimos de uma vez, informando quais já estavam devolvidos")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Lote processado; verifique as listas de resultado"),
+            @ApiResponse(responseCode = "400", description = "Dados inválidos ou funcionário inativo")
+    })
+    @PutMapping("/devolucao/lote")
+    public ResponseEntity<ResultadoDevolucaoLote> registrarDevolucaoEmLote(@RequestBody @Valid DevolucaoLoteRequest request) {
+        ResultadoDevolucaoLote resultado = emprestimoService.registrarDevolucaoEmLote(
+                request.emprestimoIds(),
+                request.funcionarioId()
+        );
+        return ResponseEntity.ok(resultado);
+    }
+
+    @Operation(summary = "Exportar todos os empréstimos",
+            description = "Escreve todos os empréstimos em CSV ou NDJSON à medida que são lidos do banco, sem carregar a tabela em memória")
+    @GetMapping("/exportar")
+    public ResponseEntity<StreamingResponseBody> exportar(@Parameter(description = "Formato do arquivo: csv ou ndjson") @RequestParam(defaultValue = "ndjson") String formato) {
+        ExportacaoService.Formato f = ExportacaoService.Formato.de(formato);
+        StreamingResponseBody corpo = saida -> exportacaoService.exportarEmprestimos(f, saida);
+        return ResponseEntity.ok()
+                .contentType(f.tipoConteudo())
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"emprestimos." + f.extensao() + "\"")
+                .body(corpo);
     }
 
     @Operation(summary = "Listar empréstimos ativos", description = "Retorna todos os empréstimos que ainda não foram devolvidos")
     @GetMapping("/ativos")
-    public ResponseEntity<List<Emprestimo>> listarEmprestimosAtivos() {
-        List<Emprestimo> emprestimos = emprestimoService.listarEmprestimosAtivos();
+    public ResponseEntity<List<EmprestimoResumo>> listarEmprestimosAtivos() {
+        List<EmprestimoResumo> emprestimos = emprestimoService.listarEmprestimosAtivos();
         return ResponseEntity.ok(emprestimos);
     }
 
-    @Operation(summary = "Listar empréstimos atrasados", description = "Retorna todos os empréstimos em atraso")
+    @Operation(summary = "Listar empréstimos atrasados", description = "Retorna, de forma paginada, os empréstimos em atraso ordenados pela data prevista de devolução")
     @GetMapping("/atrasados")
-    public ResponseEntity<List<Emprestimo>> listarEmprestimosAtrasados() {
-        List<Emprestimo> emprestimos = emprestimoService.listarEmprestimosAtrasados();
+    public ResponseEntity<Page<EmprestimoResumo>> listarEmprestimosAtrasados(@ParameterObject @PageableDefault(size = 50) Pageable pageable) {
+        Page<EmprestimoResumo> emprestimos = emprestimoService.listarEmprestimosAtrasados(pageable);
         return ResponseEntity.ok(emprestimos);
     }
 
-    @Operation(summary = "Listar histórico do cliente", description = "Retorna todo o histórico de empréstimos de um cliente")
+    @Operation(summary = "Listar histórico do cliente", description = "Retorna o histórico de empréstimos de um cliente, do mais recente para o mais antigo, paginado por cursor")
     @GetMapping("/cliente/{clienteId}")
-    public ResponseEntity<List<Emprestimo>> listarHistoricoCliente(@PathVariable Long clienteId) {
-        List<Emprestimo> historico = emprestimoService.listarHistoricoCliente(clienteId);
+    public ResponseEntity<PaginaEmprestimos> listarHistoricoCliente(
+            @PathVariable Long clienteId,
+            @Parameter(description = "Cursor devolvido pela página anterior") @RequestParam(required = false) String cursor,
+            @Parameter(description = "Quantidade de empréstimos por página (máximo 100)") @RequestParam(defaultValue = "20") int tamanho) {
+        PaginaEmprestimos historico = emprestimoService.listarHistoricoCliente(clienteId, cursor, tamanho);
         return ResponseEntity.ok(historico);
     }
 
-    @Operation(summary = "Listar empréstimos por funcionário", description = "Retorna todos os empréstimos registrados por um funcionário")
+    @Operation(summary = "Listar empréstimos por funcionário", description = "Retorna os empréstimos registrados por um funcionário, do mais recente para o mais antigo, paginados por cursor")
     @GetMapping("/funcionario/{funcionarioId}")
-    public ResponseEntity<List<Emprestimo>> listarPorFuncionario(@PathVariable Long funcionarioId) {
-        List<Emprestimo> emprestimos = emprestimoService.listarPorFuncionario(funcionarioId);
+    public ResponseEntity<PaginaEmprestimos> listarPorFuncionario(
+            @PathVariable Long funcionarioId,
+            @Parameter(description = "Cursor devolvido pela página anterior") @RequestParam(required = false) String cursor,
+            @Parameter(description = "Quantidade de empréstimos por página (máximo 100)") @RequestParam(defaultValue = "20") int tamanho) {
+        PaginaEmprestimos emprestimos = emprestimoService.listarPorFuncionario(funcionarioId, cursor, tamanho);
         return ResponseEntity.ok(emprestimos);
     }
 
     @Operation(summary = "Buscar empréstimo por ID", description = "Busca um empréstimo específico pelo ID")
     @GetMapping("/{id}")
-    public ResponseEntity<Emprestimo> buscarPorId(@PathVariable Long id) {
+    public ResponseEntity<EmprestimoDTO> buscarPorId(@PathVariable Long id) {
         Emprestimo emprestimo = emprestimoService.buscarPorId(id);
-        return ResponseEntity.ok(emprestimo);
+        return ResponseEntity.ok(EmprestimoDTO.de(emprestimo));
     }
 
     @Operation(summary = "Listar todos os empréstimos", description = "Retorna todos os empréstimos do sistema")
     @GetMapping
-    public ResponseEntity<List<Emprestimo>> listarTodos() {
-        List<Emprestimo> emprestimos = emprestimoService.listarTodos();
+    public ResponseEntity<List<EmprestimoResumo>> listarTodos() {
+        List<EmprestimoResumo> emprestimos = emprestimoService.listarTodos();
         return ResponseEntity.ok(emprestimos);
     }
 
@@ -107,5 +171,16 @@ public class EmprestimoController {
             @NotNull Long funcionarioId
     ) {}
 
+    public record EmprestimoLoteRequest(
+            @NotNull Long clienteId,
+            @NotNull Long funcionarioId,
+            @NotEmpty List<@NotNull UUID> livroUuids
+    ) {}
+
     public record DevolucaoRequest(@NotNull Long funcionarioId) {}
+
+    public record DevolucaoLoteRequest(
+            @NotNull Long funcionarioId,
+            @NotEmpty List<@NotNull Long> emprestimoIds
+    ) {}
 }
@@ -1,6 +1,7 @@
 package br.csi.sistema_biblioteca.controller;
 
 import br.csi.sistema_biblioteca.model.funcionario.Funcionario;
+import br.csi.sistema_biblioteca.model.funcionario.FuncionarioDTO;
 import br.csi.sistema_biblioteca.service.FuncionarioService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -31,72 +32,72 @@ public class FuncionarioController {
             @ApiResponse(responseCode = "200", description = "Funcionários ativos listados com sucesso")
     })
     @GetMapping("/ativos")
-    public ResponseEntity<List<Funcionario>> listarAtivos() {
+    public ResponseEntity<List<FuncionarioDTO>> listarAtivos() {
         List<Funcionario> funcionarios = funcionarioService.listarAtivos();
-        return ResponseEntity.ok(funcionarios);
+        return ResponseEntity.ok(paraDTO(funcionarios));
     }
 
     @Operation(summary = "Buscar funcionário por ID", description = "Busca um funcionário pelo ID")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Funcionário encontrado",
-                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = Funcionario.class))),
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = FuncionarioDTO.class))),
             @ApiResponse(responseCode = "404", description = "Funcionário não encontrado")
     })
     @GetMapping("/{id}")
-    public ResponseEntity<Funcionario> buscarPorId(@Parameter(description = "ID do funcionário") @PathVariable Long id) {
+    public ResponseEntity<FuncionarioDTO> buscarPorId(@Parameter(description = "ID do funcionário") @PathVariable Long id) {
         Funcionario funcionario = funcionarioService.buscarPorId(id);
-        return ResponseEntity.ok(funcionario);
+        return ResponseEntity.ok(FuncionarioDTO.de(funcionario));
     }
 
     @Operation(summary = "Buscar funcionário por UUID", description = "Busca um funcionário pelo UUID")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Funcionário encontrado",
-                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = Funcionario.class))),
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = FuncionarioDTO.class))),
             @ApiResponse(responseCode = "404", description = "Funcionário não encontrado")
     })
     @GetMapping("/uuid/{uuid}")
-    public ResponseEntity<Funcionario> buscarPorUuid(@Parameter(description = "UUID do funcionário") @PathVariable UUID uuid) {
+    public ResponseEntity<FuncionarioDTO> buscarPorUuid(@Parameter(description = "UUID do funcionário") @PathVariable UUID uuid) {
         Funcionario funcionario = funcionarioService.buscarPorUuid(uuid);
-        return ResponseEntity.ok(funcionario);
+        return ResponseEntity.ok(FuncionarioDTO.de(funcionario));
     }
 
     @Operation(summary = "Criar novo funcionário", description = "Cadastra um novo funcionário no sistema")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "201", description = "Funcionário criado com sucesso",
-                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = Funcionario.class))),
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = FuncionarioDTO.class))),
             @ApiResponse(responseCode = "400", description = "Dados inválidos fornecidos")
     })
     @PostMapping
-    public ResponseEntity<Funcionario> salvar(@RequestBody @Valid Funcionario funcionario,
+    public ResponseEntity<FuncionarioDTO> salvar(@RequestBody @Valid Funcionario funcionario,
                                               UriComponentsBuilder uriBuilder) {
         Funcionario funcionarioSalvo = funcionarioService.salvar(funcionario);
         var uri = uriBuilder.path("/funcionarios/{id}").buildAndExpand(funcionarioSalvo.getId()).toUri();
-        return ResponseEntity.created(uri).body(funcionarioSalvo);
+        return ResponseEntity.created(uri).body(FuncionarioDTO.de(funcionarioSalvo));
     }
 
     @Operation(summary = "Atualizar funcionário por ID", description = "Atualiza os dados de um funcionário existente")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Funcionário atualizado com sucesso",
-                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = Funcionario.class))),
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = FuncionarioDTO.class))),
             @ApiResponse(responseCode = "404", description = "Funcionário não encontrado")
     })
     @PutMapping("/{id}")
-    public ResponseEntity<Funcionario> atualizar(@Parameter(description = "ID do funcionário") @PathVariable Long id,
+    public ResponseEntity<FuncionarioDTO> atualizar(@Parameter(description = "ID do funcionário") @PathVariable Long id,
                                                  @RequestBody @Valid Funcionario funcionario) {
         Funcionario funcionarioAtualizado = funcionarioService.atualizar(id, funcionario);
-        return ResponseEntity.ok(funcionarioAtualizado);
+        return ResponseEntity.ok(FuncionarioDTO.de(funcionarioAtualizado));
     }
 
     @Operation(summary = "Atualizar funcionário por UUID", description = "Atualiza os dados de um funcionário existente usando UUID")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Funcionário atualizado com sucesso",
-                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = Funcionario.class))),
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = FuncionarioDTO.class))),
             @ApiResponse(responseCode = "404", description = "Funcionário não encontrado")
     })
     @PutMapping("/uuid")
-    public ResponseEntity<Funcionario> atualizarPorUuid(@RequestBody @Valid Funcionario funcionario) {
+    public ResponseEntity<FuncionarioDTO> atualizarPorUuid(@RequestBody @Valid Funcionario funcionario) {
         Funcionario funcionarioAtualizado = funcionarioService.atualizarPorUuid(funcionario);
-        return ResponseEntity.ok(funcionarioAtualizado);
+        return ResponseEntity.ok(FuncionarioDTO.de(funcionarioAtualizado));
     }
 
     @Operation(summary = "Desativar funcionário", description = "Desativa um funcionário no sistema (exclusão lógica)")
@@ -170,8 +171,12 @@ public class FuncionarioController {
             @ApiResponse(responseCode = "200", description = "Funcionários listados com sucesso")
     })
     @GetMapping
-    public ResponseEntity<List<Funcionario>> listarTodos() {
+    public ResponseEntity<List<FuncionarioDTO>> listarTodos() {
         List<Funcionario> funcionarios = funcionarioService.listarTodos();
-        return ResponseEntity.ok(funcionarios);
+        return ResponseEntity.ok(paraDTO(funcionarios));
+    }
+
+    private static List<FuncionarioDTO> paraDTO(List<Funcionario> funcionarios) {
+        return funcionarios.stream().map(FuncionarioDTO::de).toList();
     }
 }
@@ -1,6 +1,17 @@
 package br.csi.sistema_biblioteca.controller;
 
+import br.csi.sistema_biblioteca.infra.RespostaCondicional;
+import br.csi.sistema_biblioteca.model.livro_categoria.FiltroLivro;
+import br.csi.sistema_biblioteca.model.livro_categoria.ImportacaoLivros;
 import br.csi.sistema_biblioteca.model.livro_categoria.Livro;
+import br.csi.sistema_biblioteca.model.livro_categoria.LivroDTO;
+import br.csi.sistema_biblioteca.model.livro_categoria.ResultadoPesquisaLivro;
+import br.csi.sistema_biblioteca.model.livro_categoria.SituacaoImportacao;
+import br.csi.sistema_biblioteca.model.livro_categoria.SugestaoLivro;
+import br.csi.sistema_biblioteca.service.ExportacaoService;
+import br.csi.sistema_biblioteca.service.IndiceCatalogo;
+import br.csi.sistema_biblioteca.service.ImportacaoLivrosService;
+import br.csi.sistema_biblioteca.service.IndiceDisponibilidade;
 import br.csi.sistema_biblioteca.service.LivroService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -11,8 +22,17 @@ import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springdoc.core.annotations.ParameterObject;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.web.PageableDefault;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.springframework.web.util.UriComponentsBuilder;
 
 import java.util.List;
@@ -25,123 +45,236 @@ import java.util.UUID;
 public class LivroController {
 
     private final LivroService livroService;
+    private final ImportacaoLivrosService importacaoLivrosService;
+    private final ExportacaoService exportacaoService;
 
     @Operation(summary = "Listar todos os livros", description = "Retorna todos os livros cadastrados no sistema")
     @GetMapping
-    public ResponseEntity<List<Livro>> listarTodos() {
-        List<Livro> livros = livroService.listarTodos();
-        return ResponseEntity.ok(livros);
+    public ResponseEntity<List<LivroDTO>> listarTodos(WebRequest request) {
+        return RespostaCondicional.responderColecao(request, livroService::listarTodos, livroService.versaoLivros());
+    }
+
+    @Operation(summary = "Exportar catálogo completo",
+            description = "Escreve todos os livros, com suas categorias, em CSV ou NDJSON à medida que são lidos do banco. " +
+                    "O CSV usa as mesmas colunas aceitas pela importação em lote")
+    @GetMapping("/exportar")
+    public ResponseEntity<StreamingResponseBody> exportar(@Parameter(description = "Formato do arquivo: csv ou ndjson") @RequestParam(defaultValue = "ndjson") String formato) {
+        ExportacaoService.Formato f = ExportacaoService.Formato.de(formato);
+        StreamingResponseBody corpo = saida -> exportacaoService.exportarLivros(f, saida);
+        return ResponseEntity.ok()
+                .contentType(f.tipoConteudo())
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"livros." + f.extensao() + "\"")
+                .body(corpo);
     }
 
     @Operation(summary = "Listar livros disponíveis", description = "Retorna apenas os livros disponíveis para empréstimo")
     @GetMapping("/disponiveis")
-    public ResponseEntity<List<Livro>> listarDisponiveis() {
-        List<Livro> livros = livroService.listarDisponiveis();
-        return ResponseEntity.ok(livros);
+    public ResponseEntity<List<LivroDTO>> listarDisponiveis(WebRequest request) {
+        return RespostaCondicional.responderColecao(request, livroService::listarDisponiveis, livroService.versaoDisponiveis());
     }
 
     @Operation(summary = "Buscar livro por ID", description = "Busca um livro pelo ID")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Livro encontrado",
-                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = Livro.class))),
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = LivroDTO.class))),
             @ApiResponse(responseCode = "404", description = "Livro não encontrado")
     })
     @GetMapping("/{id}")
-    public ResponseEntity<Livro> buscarPorId(@Parameter(description = "ID do livro") @PathVariable Long id) {
-        Livro livro = livroService.buscarPorId(id);
-        return ResponseEntity.ok(livro);
+    public ResponseEntity<LivroDTO> buscarPorId(@Parameter(description = "ID do livro") @PathVariable Long id,
+                                             WebRequest request) {
+        return RespostaCondicional.responder(request, () -> LivroDTO.de(livroService.buscarPorId(id)), livroService.versaoLivro(id));
     }
 
     @Operation(summary = "Buscar livro por UUID", description = "Busca um livro pelo UUID público")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Livro encontrado",
-                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = Livro.class))),
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = LivroDTO.class))),
             @ApiResponse(responseCode = "404", description = "Livro não encontrado")
     })
     @GetMapping("/uuid/{uuid}")
-    public ResponseEntity<Livro> buscarPorUuid(@Parameter(description = "UUID público do livro") @PathVariable UUID uuid) {
-        Livro livro = livroService.buscarPorUuid(uuid);
-        return ResponseEntity.ok(livro);
+    public ResponseEntity<LivroDTO> buscarPorUuid(@Parameter(description = "UUID público do livro") @PathVariable UUID uuid,
+                                               WebRequest request) {
+        return RespostaCondicional.responder(request, () -> LivroDTO.de(livroService.buscarPorUuid(uuid)), livroService.versaoLivroPorUuid(uuid));
     }
 
     @Operation(summary = "Buscar livro disponível por UUID", description = "Busca um livro disponível pelo UUID público")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Livro disponível encontrado",
-                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = Livro.class))),
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = LivroDTO.class))),
             @ApiResponse(responseCode = "404", description = "Livro não encontrado ou indisponível")
     })
     @GetMapping("/uuid/{uuid}/disponivel")
-    public ResponseEntity<Livro> buscarPorUuidDisponivel(@Parameter(description = "UUID público do livro") @PathVariable UUID uuid) {
+    public ResponseEntity<LivroDTO> buscarPorUuidDisponivel(@Parameter(description = "UUID público do livro") @PathVariable UUID uuid) {
         Livro livro = livroService.buscarPorUuidDisponivel(uuid);
-        return ResponseEntity.ok(livro);
+        return ResponseEntity.ok(LivroDTO.de(livro));
+    }
+
+    @Operation(summary = "Buscar livros por texto", description = "Busca textual em título e autor, sem diferenciar acentos, ordenada por relevância (o parâmetro sort é ignorado)")
+    @GetMapping("/buscar")
+    public ResponseEntity<Page<LivroDTO>> buscarPorTexto(@Parameter(description = "Texto para busca") @RequestParam String q,
+                                                      @Parameter(description = "Retornar apenas livros disponíveis") @RequestParam(defaultValue = "false") boolean disponiveis,
+                                                      @ParameterObject @PageableDefault(size = 20) Pageable pageable) {
+        return ResponseEntity.ok(livroService.buscarPorTexto(q, disponiveis, pageable));
+    }
+
+    @Operation(summary = "Contar livros pelo índice de disponibilidade",
+            description = "Conta em memória os livros de uma categoria e/ou situação de disponibilidade, sem consultar o banco. " +
+                    "Empréstimos e devoluções aparecem com cerca de 1 segundo de atraso")
+    @GetMapping("/quiosque/disponibilidade/contagem")
+    public ResponseEntity<Long> contarPeloIndice(@Parameter(description = "ID da categoria") @RequestParam(required = false) Long categoria,
+                                                 @Parameter(description = "Situação de disponibilidade") @RequestParam(required = false, defaultValue = "true") Boolean disponivel) {
+        return ResponseEntity.ok(livroService.contarNoIndice(categoria, disponivel));
+    }
+
+    @Operation(summary = "Listar livros pelo índice de disponibilidade",
+            description = "Página de livros de uma categoria e/ou situação de disponibilidade, ordenada por ID. " +
+                    "Os IDs vêm do índice em memória e apenas os livros da página são lidos do banco")
+    @GetMapping("/quiosque/disponibilidade")
+    public ResponseEntity<Page<LivroDTO>> listarPeloIndice(@Parameter(description = "ID da categoria") @RequestParam(required = false) Long categoria,
+                                                        @Parameter(description = "Situação de disponibilidade") @RequestParam(required = false, defaultValue = "true") Boolean disponivel,
+                                                        @ParameterObject @PageableDefault(size = 20) Pageable pageable) {
+        return ResponseEntity.ok(livroService.listarPeloIndice(categoria, disponivel, pageable).map(LivroDTO::de));
+    }
+
+    @Operation(summary = "Estatísticas do índice de disponibilidade", description = "Quantidade de livros indexados e memória ocupada pelos bitmaps")
+    @GetMapping("/quiosque/disponibilidade/indice")
+    public ResponseEntity<IndiceDisponibilidade.Estatisticas> estatisticasDaDisponibilidade() {
+        return ResponseEntity.ok(livroService.estatisticasDaDisponibilidade());
+    }
+
+    @Operation(summary = "Pesquisa combinada de livros",
+            description = "Combina filtros opcionais de título, autor, categoria, faixa de ano e disponibilidade em uma única consulta paginada. " +
+                    "Também devolve quantos livros há por categoria e por disponibilidade; cada contagem ignora o próprio filtro")
+    @GetMapping("/pesquisar")
+    public ResponseEntity<ResultadoPesquisaLivro> pesquisar(@Parameter(description = "Parte do título") @RequestParam(required = false) String titulo,
+                                                            @Parameter(description = "Parte do nome do autor") @RequestParam(required = false) String autor,
+                                                            @Parameter(description = "ID da categoria") @RequestParam(required = false) Long categoria,
+                                                            @Parameter(description = "Ano de publicação mínimo") @RequestParam(required = false) Integer anoMinimo,
+                                                            @Parameter(description = "Ano de publicação máximo") @RequestParam(required = false) Integer anoMaximo,
+                                                            @Parameter(description = "Filtrar por disponibilidade") @RequestParam(required = false) Boolean disponivel,
+                                                            @ParameterObject @PageableDefault(size = 20, sort = "titulo") Pageable pageable) {
+        FiltroLivro filtro = new FiltroLivro(titulo, autor, categoria, anoMinimo, anoMaximo, disponivel);
+        return ResponseEntity.ok(livroService.pesquisar(filtro, pageable));
+    }
+
+    @Operation(summary = "Autocompletar título ou autor",
+            description = "Sugere títulos ou autores parecidos com o termo digitado, tolerando erros de digitação. " +
+                    "Pensado para ser chamado a cada tecla: exige ao menos 3 caracteres e devolve no máximo 20 sugestões")
+    @GetMapping("/autocompletar")
+    public ResponseEntity<List<SugestaoLivro>> autocompletar(@Parameter(description = "Termo digitado") @RequestParam String termo,
+                                                             @Parameter(description = "Campo sugerido: titulo ou autor") @RequestParam(defaultValue = "titulo") String campo,
+                                                             @Parameter(description = "Quantidade máxima de sugestões (até 20)") @RequestParam(defaultValue = "10") int limite) {
+        List<SugestaoLivro> sugestoes = livroService.autocompletar(termo, campo, limite);
+        return ResponseEntity.ok(sugestoes);
+    }
+
+    @Operation(summary = "Busca rápida para quiosques",
+            description = "Busca em título, autor e categorias usando o índice mantido em memória, sem consultar o banco. " +
+                    "Todos os termos precisam aparecer; o último pode ser apenas o início de uma palavra, com ao menos 3 caracteres")
+    @GetMapping("/quiosque/buscar")
+    public ResponseEntity<List<IndiceCatalogo.ResultadoBusca>> buscarNoQuiosque(@Parameter(description = "Texto para busca") @RequestParam String q,
+                                                                             @Parameter(description = "Tratar o último termo como prefixo") @RequestParam(defaultValue = "true") boolean prefixo,
+                                                                             @Parameter(description = "Quantidade máxima de resultados (até 100)") @RequestParam(defaultValue = "20") int limite) {
+        List<IndiceCatalogo.ResultadoBusca> resultados = livroService.buscarNoIndice(q, prefixo, limite);
+        return ResponseEntity.ok(resultados);
+    }
+
+    @Operation(summary = "Estatísticas do índice em memória", description = "Quantidade de livros e termos indexados e memória estimada do índice")
+    @GetMapping("/quiosque/indice")
+    public ResponseEntity<IndiceCatalogo.Estatisticas> estatisticasDoIndice() {
+        return ResponseEntity.ok(livroService.estatisticasDoIndice());
     }
 
     @Operation(summary = "Buscar livros por título", description = "Busca livros por título (busca parcial)")
     @GetMapping("/buscar/titulo")
-    public ResponseEntity<List<Livro>> buscarPorTitulo(@Parameter(description = "Título para busca") @RequestParam String titulo) {
-        List<Livro> livros = livroService.buscarPorTitulo(titulo);
-        return ResponseEntity.ok(livros);
+    public ResponseEntity<List<LivroDTO>> buscarPorTitulo(@Parameter(description = "Título para busca") @RequestParam String titulo) {
+        return ResponseEntity.ok(livroService.buscarPorTitulo(titulo));
     }
 
     @Operation(summary = "Buscar livros disponíveis por título", description = "Busca livros disponíveis por título (busca parcial)")
     @GetMapping("/buscar/titulo/disponiveis")
-    public ResponseEntity<List<Livro>> buscarPorTituloDisponiveis(@Parameter(description = "Título para busca") @RequestParam String titulo) {
-        List<Livro> livros = livroService.buscarPorTituloDisponiveis(titulo);
-        return ResponseEntity.ok(livros);
+    public ResponseEntity<List<LivroDTO>> buscarPorTituloDisponiveis(@Parameter(description = "Título para busca") @RequestParam String titulo) {
+        return ResponseEntity.ok(livroService.buscarPorTituloDisponiveis(titulo));
     }
 
     @Operation(summary = "Buscar livros por autor", description = "Busca livros por autor (busca parcial)")
     @GetMapping("/buscar/autor")
-    public ResponseEntity<List<Livro>> buscarPorAutor(@Parameter(description = "Autor para busca") @RequestParam String autor) {
-        List<Livro> livros = livroService.buscarPorAutor(autor);
-        return ResponseEntity.ok(livros);
+    public ResponseEntity<List<LivroDTO>> buscarPorAutor(@Parameter(description = "Autor para busca") @RequestParam String autor) {
+        return ResponseEntity.ok(livroService.buscarPorAutor(autor));
     }
 
     @Operation(summary = "Buscar livros disponíveis por autor", description = "Busca livros disponíveis por autor (busca parcial)")
     @GetMapping("/buscar/autor/disponiveis")
-    public ResponseEntity<List<Livro>> buscarPorAutorDisponiveis(@Parameter(description = "Autor para busca") @RequestParam String autor) {
-        List<Livro> livros = livroService.buscarPorAutorDisponiveis(autor);
-        return ResponseEntity.ok(livros);
+    public ResponseEntity<List<LivroDTO>> buscarPorAutorDisponiveis(@Parameter(description = "Autor para busca") @RequestParam String autor) {
+        return ResponseEntity.ok(livroService.buscarPorAutorDisponiveis(autor));
     }
 
     @Operation(summary = "Cadastrar livro", description = "Adiciona um novo livro ao acervo")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "201", description = "Livro cadastrado com sucesso",
-                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = Livro.class))),
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = LivroDTO.class))),
             @ApiResponse(responseCode = "400", description = "Dados inválidos fornecidos")
     })
     @PostMapping
-    public ResponseEntity<Livro> salvar(@RequestBody @Valid Livro livro,
+    public ResponseEntity<LivroDTO> salvar(@RequestBody @Valid Livro livro,
                                         UriComponentsBuilder uriBuilder) {
         Livro livroSalvo = livroService.salvar(livro);
         var uri = uriBuilder.path("/livros/{id}").buildAndExpand(livroSalvo.getId()).toUri();
-        return ResponseEntity.created(uri).body(livroSalvo);
+        return ResponseEntity.created(uri).body(LivroDTO.de(livroSalvo));
+    }
+
+    @Operation(summary = "Importar livros em lote",
+            description = "Recebe um arquivo CSV (cabeçalho com titulo, autor e, opcionalmente, anoPublicacao, categorias separadas por '|' e uuid) " +
+                    "ou NDJSON (um livro em JSON por linha) e grava os livros em segundo plano. Categorias são informadas pelo nome e precisam existir. " +
+                    "Acompanhe o andamento e as linhas rejeitadas pelo endereço devolvido em Location")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "202", description = "Importação iniciada"),
+            @ApiResponse(responseCode = "400", description = "Formato inválido ou arquivo vazio")
+    })
+    @PostMapping(value = "/importacao", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<SituacaoImportacao> importar(@Parameter(description = "Arquivo CSV ou NDJSON") @RequestParam MultipartFile arquivo,
+                                                       @Parameter(description = "Formato do arquivo: csv ou ndjson") @RequestParam(defaultValue = "csv") String formato,
+                                                       UriComponentsBuilder uriBuilder) {
+        ImportacaoLivros importacao = importacaoLivrosService.iniciar(arquivo, formato);
+        var uri = uriBuilder.path("/livros/importacao/{id}").buildAndExpand(importacao.getId()).toUri();
+        return ResponseEntity.accepted().location(uri).body(importacao.situacao());
+    }
+
+    @Operation(summary = "Andamento da importação de livros", description = "Contadores da importação e as primeiras linhas rejeitadas com o motivo. " +
+            "Depois do fim, a importação fica disponível pelo prazo de retenção (24 horas por padrão)")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Andamento da importação"),
+            @ApiResponse(responseCode = "404", description = "Importação não encontrada ou já fora do prazo de retenção")
+    })
+    @GetMapping("/importacao/{id}")
+    public ResponseEntity<SituacaoImportacao> situacaoDaImportacao(@Parameter(description = "ID da importação") @PathVariable UUID id) {
+        return ResponseEntity.ok(importacaoLivrosService.buscar(id).situacao());
     }
 
     @Operation(summary = "Atualizar livro por ID", description = "Atualiza os dados de um livro existente")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Livro atualizado com sucesso",
-                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = Livro.class))),
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = LivroDTO.class))),
             @ApiResponse(responseCode = "404", description = "Livro não encontrado")
     })
     @PutMapping("/{id}")
-    public ResponseEntity<Livro> atualizar(@Parameter(description = "ID do livro") @PathVariable Long id,
+    public ResponseEntity<LivroDTO> atualizar(@Parameter(description = "ID do livro") @PathVariable Long id,
                                            @RequestBody @Valid Livro livro) {
         Livro livroAtualizado = livroService.atualizar(id, livro);
-        return ResponseEntity.ok(livroAtualizado);
+        return ResponseEntity.ok(LivroDTO.de(livroAtualizado));
     }
 
     @Operation(summary = "Atualizar livro por UUID", description = "Atualiza os dados de um livro existente usando UUID público")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Livro atualizado com sucesso",
-                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = Livro.class))),
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = LivroDTO.class))),
             @ApiResponse(responseCode = "404", description = "Livro não encontrado")
     })
     @PutMapping("/uuid/{uuid}")
-    public ResponseEntity<Livro> atualizarPorUuid(@Parameter(description = "UUID público do livro") @PathVariable UUID uuid,
+    public ResponseEntity<LivroDTO> atualizarPorUuid(@Parameter(description = "UUID público do livro") @PathVariable UUID uuid,
                                                   @RequestBody @Valid Livro livro) {
         Livro livroAtualizado = livroService.atualizarPorUuid(uuid, livro);
-        return ResponseEntity.ok(livroAtualizado);
+        return ResponseEntity.ok(LivroDTO.de(livroAtualizado));
     }
 
     @Operation(summary = "Excluir livro", description = "Remove permanentemente um livro do sistema")
@@ -170,36 +303,37 @@ public class LivroController {
 
     @Operation(summary = "Adicionar categoria ao livro", description = "Associa uma categoria a um livro")
     @PostMapping("/{idLivro}/categorias/{idCategoria}")
-    public ResponseEntity<Livro> adicionarCategoria(@PathVariable Long idLivro, @PathVariable Long idCategoria) {
+    public ResponseEntity<LivroDTO> adicionarCategoria(@PathVariable Long idLivro, @PathVariable Long idCategoria) {
         Livro livro = livroService.adicionarCategoria(idLivro, idCategoria);
-        return ResponseEntity.ok(livro);
+        return ResponseEntity.ok(LivroDTO.de(livro));
     }
 
     @Operation(summary = "Adicionar categoria ao livro por UUID", description = "Associa uma categoria a um livro usando UUID público")
     @PostMapping("/uuid/{uuidLivro}/categorias/{idCategoria}")
-    public ResponseEntity<Livro> adicionarCategoriaPorUuid(@PathVariable UUID uuidLivro, @PathVariable Long idCategoria) {
+    public ResponseEntity<LivroDTO> adicionarCategoriaPorUuid(@PathVariable UUID uuidLivro, @PathVariable Long idCategoria) {
         Livro livro = livroService.adicionarCategoriaPorUuid(uuidLivro, idCategoria);
-        return ResponseEntity.ok(livro);
+        return ResponseEntity.ok(LivroDTO.de(livro));
     }
 
     @Operation(summary = "Remover categoria do livro", description = "Remove a associação de uma categoria com um livro")
     @DeleteMapping("/{idLivro}/categorias/{idCategoria}")
-    public ResponseEntity<Livro> removerCategoria(@PathVariable Long idLivro, @PathVariable Long idCategoria) {
+    public ResponseEntity<LivroDTO> removerCategoria(@PathVariable Long idLivro, @PathVariable Long idCategoria) {
         Livro livro = livroService.removerCategoria(idLivro, idCategoria);
-        return ResponseEntity.ok(livro);
+        return ResponseEntity.ok(LivroDTO.de(livro));
     }
 
     @Operation(summary = "Remover categoria do livro por UUID", description = "Remove a associação de uma categoria com um livro usando UUID público")
     @DeleteMapping("/uuid/{uuidLivro}/categorias/{idCategoria}")
-    public ResponseEntity<Livro> removerCategoriaPorUuid(@PathVariable UUID uuidLivro, @PathVariable Long idCategoria) {
+    public ResponseEntity<LivroDTO> removerCategoriaPorUuid(@PathVariable UUID uuidLivro, @PathVariable Long idCategoria) {
         Livro livro = livroService.removerCategoriaPorUuid(uuidLivro, idCategoria);
-        return ResponseEntity.ok(livro);
+        return ResponseEntity.ok(LivroDTO.de(livro));
     }
 
-    @Operation(summary = "Buscar livros por categoria", description = "Retorna todos os livros de uma categoria específica")
+    @Operation(summary = "Buscar livros por categoria", description = "Retorna, de forma paginada, os livros de uma categoria específica com suas categorias")
     @GetMapping("/categoria/{idCategoria}")
-    public ResponseEntity<List<Livro>> buscarPorCategoria(@PathVariable Long idCategoria) {
-        List<Livro> livros = livroService.buscarPorCategoria(idCategoria);
-        return ResponseEntity.ok(livros);
+    public ResponseEntity<Page<LivroDTO>> buscarPorCategoria(@PathVariable Long idCategoria,
+                                                          @ParameterObject @PageableDefault(size = 50, sort = "id") Pageable pageable) {
+        Page<Livro> livros = livroService.buscarPorCategoria(idCategoria, pageable);
+        return ResponseEntity.ok(livros.map(LivroDTO::de));
     }
 }
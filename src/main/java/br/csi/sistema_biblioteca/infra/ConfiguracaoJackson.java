@@ -0,0 +1,18 @@
+package br.csi.sistema_biblioteca.infra;
+
+import com.fasterxml.jackson.databind.Module;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+// O Spring Boot registra todo bean Module no ObjectMapper usado pelas respostas e exportações.
+// O Blackbird troca as chamadas de getters/construtores por reflexão por lambdas geradas,
+// o que pesa nas listagens e exportações com milhares de DTOs.
+@Configuration
+public class ConfiguracaoJackson {
+
+    @Bean
+    public Module blackbirdModule() {
+        return new BlackbirdModule();
+    }
+}
@@ -0,0 +1,23 @@
+package br.csi.sistema_biblioteca.infra;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+// Resumo dos contadores de um cache local (Caffeine) criado com recordStats()
+@Schema(description = "Acertos e falhas de um cache local")
+public record EstatisticasCache(
+        @Schema(description = "Nome do cache", example = "porId") String cache,
+        @Schema(description = "Entradas atuais") long tamanho,
+        @Schema(description = "Consultas atendidas pelo cache") long acertos,
+        @Schema(description = "Consultas que foram ao banco") long falhas,
+        @Schema(description = "Fração de acertos", example = "0.98") double taxaAcerto,
+        @Schema(description = "Entradas removidas por tamanho ou expiração") long remocoes
+) {
+
+    public static EstatisticasCache de(String nome, Cache<?, ?> cache) {
+        CacheStats stats = cache.stats();
+        return new EstatisticasCache(nome, cache.estimatedSize(),
+                stats.hitCount(), stats.missCount(), stats.hitRate(), stats.evictionCount());
+    }
+}
@@ -0,0 +1,55 @@
+package br.csi.sistema_biblioteca.infra;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+// Com threads virtuais o Tomcat deixa de limitar quantas requisições rodam ao mesmo tempo.
+// Este filtro devolve esse limite para que milhares de threads não disputem as poucas
+// conexões do pool: quem não consegue vaga dentro do prazo recebe 503.
+@Component
+@ConditionalOnProperty(name = "biblioteca.concorrencia.limite-requisicoes")
+public class LimiteConcorrenciaFilter extends OncePerRequestFilter {
+
+    private final Semaphore vagas;
+    private final long esperaMs;
+
+    public LimiteConcorrenciaFilter(@Value("${biblioteca.concorrencia.limite-requisicoes}") int limiteRequisicoes,
+                                    @Value("${biblioteca.concorrencia.espera-ms:1000}") long esperaMs) {
+        this.vagas = new Semaphore(limiteRequisicoes, true);
+        this.esperaMs = esperaMs;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        boolean adquiriu;
+        try {
+            adquiriu = vagas.tryAcquire(esperaMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            adquiriu = false;
+        }
+
+        if (!adquiriu) {
+            response.sendError(HttpStatus.SERVICE_UNAVAILABLE.value(), "Servidor ocupado, tente novamente");
+            return;
+        }
+
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            vagas.release();
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package br.csi.sistema_biblioteca.infra;
+
+import br.csi.sistema_biblioteca.model.VersaoRecurso;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.context.request.WebRequest;
+
+import java.util.Arrays;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+// GET condicional: compara If-None-Match (e, em recursos únicos, If-Modified-Since) com a versão
+// do recurso antes de carregar ou serializar qualquer entidade, respondendo 304 quando nada mudou
+public final class RespostaCondicional {
+
+    private RespostaCondicional() {
+    }
+
+    // Recurso único: ETag e Last-Modified. Várias versões são combinadas quando a resposta depende
+    // de mais de uma tabela (por exemplo, um livro com as categorias embutidas)
+    public static <T> ResponseEntity<T> responder(WebRequest request, Supplier<T> corpo, VersaoRecurso... versoes) {
+        String etag = etag(versoes);
+        long ultimaAlteracao = Arrays.stream(versoes).mapToLong(VersaoRecurso::getAlteracao).max().orElse(0);
+
+        if (request.checkNotModified(etag, ultimaAlteracao)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).build();
+        }
+        return ResponseEntity.ok()
+                .eTag(etag)
+                .lastModified(ultimaAlteracao)
+                .cacheControl(CacheControl.noCache())
+                .body(corpo.get());
+    }
+
+    // Coleção: só ETag. O MAX(updated_at) das linhas filtradas não sobe quando uma linha é excluída
+    // ou sai do filtro (um livro emprestado deixa /disponiveis), e a data HTTP só tem segundos, então
+    // um If-Modified-Since responderia 304 com a lista desatualizada. A quantidade e a assinatura
+    // do ETag mudam nesses casos.
+    public static <T> ResponseEntity<T> responderColecao(WebRequest request, Supplier<T> corpo, VersaoRecurso... versoes) {
+        String etag = etag(versoes);
+
+        if (request.checkNotModified(etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).build();
+        }
+        return ResponseEntity.ok()
+                .eTag(etag)
+                .cacheControl(CacheControl.noCache())
+                .body(corpo.get());
+    }
+
+    private static String etag(VersaoRecurso... versoes) {
+        return Arrays.stream(versoes)
+                .map(v -> Long.toHexString(v.getQuantidade()) + "-" + Long.toHexString(v.getAlteracao()) + "-" + Long.toHexString(v.getAssinatura()))
+                .collect(Collectors.joining(".", "W/\"", "\""));
+    }
+}
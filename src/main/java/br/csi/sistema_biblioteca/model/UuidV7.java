@@ -0,0 +1,36 @@
+package br.csi.sistema_biblioteca.model;
+
+import java.security.SecureRandom;
+import java.util.UUID;
+
+// UUID versão 7 (RFC 9562): os 48 bits iniciais são o instante em milissegundos e o restante
+// é aleatório. UUIDs gerados em sequência ficam próximos no índice, então cada INSERT cai na
+// última página da árvore em vez de uma página qualquer. Mesmo formato gerado pela função
+// uuid_generate_v7() do banco, usada como DEFAULT das colunas uuid.
+public final class UuidV7 {
+
+    private static final SecureRandom ALEATORIO = new SecureRandom();
+
+    private UuidV7() {
+    }
+
+    public static UUID gerar() {
+        byte[] bytes = new byte[16];
+        ALEATORIO.nextBytes(bytes);
+
+        long agora = System.currentTimeMillis();
+        for (int i = 0; i < 6; i++) {
+            bytes[i] = (byte) (agora >>> (40 - 8 * i));
+        }
+        bytes[6] = (byte) ((bytes[6] & 0x0F) | 0x70);   // versão 7
+        bytes[8] = (byte) ((bytes[8] & 0x3F) | 0x80);   // variante RFC 9562
+
+        long maisSignificativos = 0;
+        long menosSignificativos = 0;
+        for (int i = 0; i < 8; i++) {
+            maisSignificativos = (maisSignificativos << 8) | (bytes[i] & 0xFF);
+            menosSignificativos = (menosSignificativos << 8) | (bytes[i + 8] & 0xFF);
+        }
+        return new UUID(maisSignificativos, menosSignificativos);
+    }
+}
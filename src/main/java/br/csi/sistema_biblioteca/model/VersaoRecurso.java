@@ -0,0 +1,20 @@
+package br.csi.sistema_biblioteca.model;
+
+// Resumo de um conjunto de linhas usado para ETag/Last-Modified, calculado a partir de updated_at
+// (mantido pelos triggers update_*_updated_at). A quantidade muda com inclusões e exclusões, a
+// última alteração alimenta o Last-Modified e a assinatura (soma dos updated_at) muda a cada
+// UPDATE, mesmo quando a transação que alterou a linha começou antes da última alteração vista.
+public interface VersaoRecurso {
+
+    // Colunas que as consultas nativas de versão devem selecionar antes do FROM
+    String COLUNAS = "SELECT COUNT(*) AS quantidade, " +
+            "COALESCE(CAST(EXTRACT(EPOCH FROM MAX(updated_at)) * 1000 AS BIGINT), 0) AS alteracao, " +
+            "CAST(COALESCE(SUM(CAST(EXTRACT(EPOCH FROM updated_at) * 1000 AS BIGINT)), 0) % 9223372036854775807 AS BIGINT) AS assinatura ";
+
+    Long getQuantidade();
+
+    // Epoch em milissegundos da linha alterada mais recentemente (0 se não houver linhas)
+    Long getAlteracao();
+
+    Long getAssinatura();
+}
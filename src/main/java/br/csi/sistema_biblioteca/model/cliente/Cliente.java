@@ -1,11 +1,11 @@
 package br.csi.sistema_biblioteca.model.cliente;
 
+import br.csi.sistema_biblioteca.model.UuidV7;
 import io.swagger.v3.oas.annotations.media.Schema;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Size;
 import lombok.*;
-import org.hibernate.annotations.UuidGenerator;
 
 import java.util.UUID;
 
@@ -25,7 +25,7 @@ public class Cliente {
     @Schema(description = "ID único do cliente", example = "1")
     private Long id;
 
-    @UuidGenerator
+    @Column(updatable = false)
     @Schema(description = "UUID único do cliente para identificação externa")
     private UUID uuid;
 
@@ -48,4 +48,15 @@ public class Cliente {
 
     @Schema(description = "Endereço completo do cliente", example = "Rua das Flores, 123 - Centro - São Paulo/SP")
     private String endereco;
+
+    @Column(name = "emprestimos_ativos", insertable = false, updatable = false)
+    @Schema(description = "Quantidade de empréstimos em aberto do cliente (mantida pelo banco)", example = "1")
+    private Integer emprestimosAtivos = 0;
+
+    @PrePersist
+    protected void gerarUuid() {
+        if (this.uuid == null) {
+            this.uuid = UuidV7.gerar();
+        }
+    }
 }
@@ -0,0 +1,35 @@
+package br.csi.sistema_biblioteca.model.cliente;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.UUID;
+
+@Schema(description = "Cliente da biblioteca devolvido pela API")
+public record ClienteDTO(
+        @Schema(description = "ID único do cliente", example = "1")
+        Long id,
+
+        @Schema(description = "UUID único do cliente para identificação externa")
+        UUID uuid,
+
+        @Schema(description = "Nome completo do cliente", example = "Maria Santos")
+        String nome,
+
+        @Schema(description = "CPF único do cliente (apenas números)", example = "12345678901")
+        String cpf,
+
+        @Schema(description = "Número de telefone do cliente", example = "(11) 99999-9999")
+        String telefone,
+
+        @Schema(description = "Endereço completo do cliente", example = "Rua das Flores, 123 - Centro - São Paulo/SP")
+        String endereco,
+
+        @Schema(description = "Quantidade de empréstimos em aberto do cliente", example = "1")
+        Integer emprestimosAtivos
+) {
+
+    public static ClienteDTO de(Cliente cliente) {
+        return new ClienteDTO(cliente.getId(), cliente.getUuid(), cliente.getNome(), cliente.getCpf(),
+                cliente.getTelefone(), cliente.getEndereco(), cliente.getEmprestimosAtivos());
+    }
+}
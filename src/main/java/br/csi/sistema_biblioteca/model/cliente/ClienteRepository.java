@@ -1,6 +1,8 @@
 package br.csi.sistema_biblioteca.model.cliente;
 
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
@@ -11,13 +13,15 @@ public interface ClienteRepository extends JpaRepository<Cliente, Long> {
 
     Optional<Cliente> findByUuid(UUID uuid);
 
+    @Query("SELECT c.id FROM Cliente c WHERE c.uuid = :uuid")
+    Optional<Long> findIdByUuid(@Param("uuid") UUID uuid);
+
     void deleteByUuid(UUID uuid);
 
     Optional<Cliente> findByCpf(String cpf);
 
-    @Query("SELECT COUNT(e) > 0 FROM Emprestimo e WHERE e.cliente.id = :idCliente AND e.dataDevolucao IS NULL")
-    boolean hasEmprestimosAtivos(@Param("idCliente") Long idCliente);
-
-    @Query("SELECT COUNT(e) > 0 FROM Emprestimo e WHERE e.cliente.uuid = :uuidCliente AND e.dataDevolucao IS NULL")
-    boolean hasEmprestimosAtivosByUuid(@Param("uuidCliente") UUID uuidCliente);
+    // Bloqueia apenas a linha do cliente para que empréstimos simultâneos respeitem o limite
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT c FROM Cliente c WHERE c.id = :id")
+    Optional<Cliente> findByIdParaEmprestimo(@Param("id") Long id);
 }
@@ -0,0 +1,29 @@
+package br.csi.sistema_biblioteca.model.emprestimo;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+// Posição de um empréstimo no histórico (ordenado por data do empréstimo e ID, decrescentes),
+// enviada ao cliente como uma string opaca
+public record CursorEmprestimo(LocalDateTime dataEmprestimo, Long id) {
+
+    public static CursorEmprestimo de(EmprestimoResumo emprestimo) {
+        return new CursorEmprestimo(emprestimo.dataEmprestimo(), emprestimo.id());
+    }
+
+    public String codificar() {
+        String valor = dataEmprestimo + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(valor.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static CursorEmprestimo decodificar(String cursor) {
+        try {
+            String valor = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] partes = valor.split("\\|");
+            return new CursorEmprestimo(LocalDateTime.parse(partes[0]), Long.parseLong(partes[1]));
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Cursor inválido: " + cursor, e);
+        }
+    }
+}
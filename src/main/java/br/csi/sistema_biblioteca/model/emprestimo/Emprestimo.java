@@ -3,6 +3,7 @@ package br.csi.sistema_biblioteca.model.emprestimo;
 import br.csi.sistema_biblioteca.model.cliente.Cliente;
 import br.csi.sistema_biblioteca.model.funcionario.Funcionario;
 import br.csi.sistema_biblioteca.model.livro_categoria.Livro;
+import br.csi.sistema_biblioteca.model.UuidV7;
 import io.swagger.v3.oas.annotations.media.Schema;
 import jakarta.persistence.*;
 import lombok.*;
@@ -30,7 +31,7 @@ public class Emprestimo {
     @JdbcTypeCode(SqlTypes.UUID)
     @Column(name = "uuid", unique = true, nullable = false, updatable = false, columnDefinition = "UUID")
     @Schema(description = "Código UUID único do empréstimo", example = "123e4567-e89b-12d3-a456-426614174000")
-    private UUID uuid = UUID.randomUUID();
+    private UUID uuid;
 
     @Column(name = "data_emprestimo")
     @Schema(description = "Data e hora do empréstimo", example = "2024-01-15T10:30:00")
@@ -44,6 +45,10 @@ public class Emprestimo {
     @Schema(description = "Data prevista para devolução do livro", example = "2024-01-29T10:30:00")
     private LocalDateTime dataDevolucaoPrevista;
 
+    @Column(name = "atrasado", insertable = false, updatable = false)
+    @Schema(description = "Indica se o empréstimo está em atraso (atualizado periodicamente)", example = "false")
+    private Boolean atrasado = false;
+
     @ManyToOne
     @JoinColumn(name = "id_cliente")
     @Schema(description = "Cliente que realizou o empréstimo")
@@ -59,10 +64,11 @@ public class Emprestimo {
     @Schema(description = "Funcionário que registrou o empréstimo")
     private Funcionario funcionario;
 
+    // Gerado só na inclusão: um valor no inicializador seria recalculado a cada leitura do banco
     @PrePersist
     protected void gerarUuid() {
         if (this.uuid == null) {
-            this.uuid = UUID.randomUUID();
+            this.uuid = UuidV7.gerar();
         }
     }
 
@@ -0,0 +1,48 @@
+package br.csi.sistema_biblioteca.model.emprestimo;
+
+import br.csi.sistema_biblioteca.model.cliente.ClienteDTO;
+import br.csi.sistema_biblioteca.model.funcionario.FuncionarioDTO;
+import br.csi.sistema_biblioteca.model.livro_categoria.LivroDTO;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Schema(description = "Empréstimo devolvido pela API, com cliente, livro e funcionário")
+public record EmprestimoDTO(
+        @Schema(description = "ID único do empréstimo", example = "1")
+        Long id,
+
+        @Schema(description = "Código UUID único do empréstimo", example = "123e4567-e89b-12d3-a456-426614174000")
+        UUID uuid,
+
+        @Schema(description = "Data e hora do empréstimo", example = "2024-01-15T10:30:00")
+        LocalDateTime dataEmprestimo,
+
+        @Schema(description = "Data e hora da devolução", example = "2024-01-20T14:25:00")
+        LocalDateTime dataDevolucao,
+
+        @Schema(description = "Data prevista para devolução do livro", example = "2024-01-29T10:30:00")
+        LocalDateTime dataDevolucaoPrevista,
+
+        @Schema(description = "Indica se o empréstimo está em atraso", example = "false")
+        Boolean atrasado,
+
+        @Schema(description = "Cliente que realizou o empréstimo")
+        ClienteDTO cliente,
+
+        @Schema(description = "Livro que foi emprestado")
+        LivroDTO livro,
+
+        @Schema(description = "Funcionário que registrou o empréstimo")
+        FuncionarioDTO funcionario
+) {
+
+    public static EmprestimoDTO de(Emprestimo emprestimo) {
+        return new EmprestimoDTO(emprestimo.getId(), emprestimo.getUuid(), emprestimo.getDataEmprestimo(),
+                emprestimo.getDataDevolucao(), emprestimo.getDataDevolucaoPrevista(), emprestimo.getAtrasado(),
+                emprestimo.getCliente() == null ? null : ClienteDTO.de(emprestimo.getCliente()),
+                emprestimo.getLivro() == null ? null : LivroDTO.de(emprestimo.getLivro()),
+                emprestimo.getFuncionario() == null ? null : FuncionarioDTO.de(emprestimo.getFuncionario()));
+    }
+}
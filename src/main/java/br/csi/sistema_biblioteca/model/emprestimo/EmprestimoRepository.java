@@ -1,26 +1,95 @@
 package br.csi.sistema_biblioteca.model.emprestimo;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.AvailableHints;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface EmprestimoRepository extends JpaRepository<Emprestimo, Long> {
 
-    List<Emprestimo> findByClienteId(Long clienteId);
+    // Listagens devolvem apenas os campos exibidos, montados por um único SELECT com JOIN
+    String SELECT_RESUMO = "SELECT new br.csi.sistema_biblioteca.model.emprestimo.EmprestimoResumo(" +
+            "e.id, e.uuid, e.dataEmprestimo, e.dataDevolucaoPrevista, e.dataDevolucao, e.atrasado, " +
+            "c.id, c.nome, l.id, l.uuid, l.titulo, f.id, f.nome) " +
+            "FROM Emprestimo e JOIN e.cliente c JOIN e.livro l JOIN e.funcionario f ";
 
-    List<Emprestimo> findByDataDevolucaoIsNull();
+    @Query(SELECT_RESUMO + "ORDER BY e.id")
+    List<EmprestimoResumo> findAllResumos();
+
+    @Query(SELECT_RESUMO + "WHERE e.dataDevolucao IS NULL ORDER BY e.id")
+    List<EmprestimoResumo> findResumosAtivos();
+
+    // Exportação: o driver lê o resultado em blocos pelo cursor em vez de carregar a tabela inteira
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query(SELECT_RESUMO + "ORDER BY e.id")
+    Stream<EmprestimoResumo> streamResumos();
 
     @Query("SELECT e FROM Emprestimo e WHERE e.livro.id = :livroId AND e.dataDevolucao IS NULL")
     Optional<Emprestimo> findEmprestimoAtivoPorLivro(@Param("livroId") Long livroId);
 
-    @Query("SELECT COUNT(e) FROM Emprestimo e WHERE e.cliente.id = :clienteId AND e.dataDevolucao IS NULL")
-    int countEmprestimosAtivosPorCliente(@Param("clienteId") Long clienteId);
+    // Histórico paginado por cursor (keyset): a próxima página começa após o último (dataEmprestimo, id) lido
+    @Query(SELECT_RESUMO +
+            "WHERE c.id = :clienteId " +
+            "ORDER BY e.dataEmprestimo DESC, e.id DESC")
+    List<EmprestimoResumo> findHistoricoCliente(@Param("clienteId") Long clienteId, Pageable limite);
+
+    @Query(SELECT_RESUMO +
+            "WHERE c.id = :clienteId " +
+            "AND (e.dataEmprestimo < :data OR (e.dataEmprestimo = :data AND e.id < :id)) " +
+            "ORDER BY e.dataEmprestimo DESC, e.id DESC")
+    List<EmprestimoResumo> findHistoricoClienteApos(@Param("clienteId") Long clienteId,
+                                                    @Param("data") LocalDateTime data,
+                                                    @Param("id") Long id,
+                                                    Pageable limite);
+
+    @Query(SELECT_RESUMO +
+            "WHERE f.id = :funcionarioId " +
+            "ORDER BY e.dataEmprestimo DESC, e.id DESC")
+    List<EmprestimoResumo> findHistoricoFuncionario(@Param("funcionarioId") Long funcionarioId, Pageable limite);
+
+    @Query(SELECT_RESUMO +
+            "WHERE f.id = :funcionarioId " +
+            "AND (e.dataEmprestimo < :data OR (e.dataEmprestimo = :data AND e.id < :id)) " +
+            "ORDER BY e.dataEmprestimo DESC, e.id DESC")
+    List<EmprestimoResumo> findHistoricoFuncionarioApos(@Param("funcionarioId") Long funcionarioId,
+                                                        @Param("data") LocalDateTime data,
+                                                        @Param("id") Long id,
+                                                        Pageable limite);
+
+    @Query(value = SELECT_RESUMO + "WHERE e.dataDevolucao IS NULL AND e.atrasado = true " +
+            "ORDER BY e.dataDevolucaoPrevista, e.id",
+            countQuery = "SELECT COUNT(e) FROM Emprestimo e WHERE e.dataDevolucao IS NULL AND e.atrasado = true")
+    Page<EmprestimoResumo> findEmprestimosAtrasados(Pageable pageable);
+
+    @Modifying
+    @Query("UPDATE Emprestimo e SET e.atrasado = true " +
+            "WHERE e.dataDevolucao IS NULL AND e.atrasado = false AND e.dataDevolucaoPrevista < :agora")
+    int marcarAtrasados(@Param("agora") LocalDateTime agora);
+
+    @Modifying
+    @Query("UPDATE Emprestimo e SET e.atrasado = false " +
+            "WHERE e.dataDevolucao IS NULL AND e.atrasado = true AND e.dataDevolucaoPrevista >= :agora")
+    int desmarcarNoPrazo(@Param("agora") LocalDateTime agora);
 
-    List<Emprestimo> findByFuncionarioId(Long funcionarioId);
+    // Fecha de uma vez os empréstimos ainda abertos; cada linha devolvida contém [id_emprestimo, id_livro]
+    @Query(value = "UPDATE emprestimo SET data_devolucao = :dataDevolucao, id_funcionario = :funcionarioId " +
+            "WHERE id_emprestimo IN (:ids) AND data_devolucao IS NULL " +
+            "RETURNING id_emprestimo, id_livro", nativeQuery = true)
+    List<Object[]> fecharEmprestimosAbertos(@Param("ids") Collection<Long> ids,
+                                            @Param("funcionarioId") Long funcionarioId,
+                                            @Param("dataDevolucao") LocalDateTime dataDevolucao);
 
-    @Query("SELECT e FROM Emprestimo e WHERE e.dataDevolucao IS NULL AND e.dataDevolucaoPrevista < CURRENT_DATE")
-    List<Emprestimo> findEmprestimosAtrasados();
+    @Query("SELECT e.id FROM Emprestimo e WHERE e.id IN :ids")
+    List<Long> findIdsExistentes(@Param("ids") Collection<Long> ids);
 }
@@ -0,0 +1,49 @@
+package br.csi.sistema_biblioteca.model.emprestimo;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Schema(description = "Resumo de um empréstimo usado nas listagens")
+public record EmprestimoResumo(
+        @Schema(description = "ID único do empréstimo", example = "1")
+        Long id,
+
+        @Schema(description = "Código UUID único do empréstimo", example = "123e4567-e89b-12d3-a456-426614174000")
+        UUID uuid,
+
+        @Schema(description = "Data e hora do empréstimo", example = "2024-01-15T10:30:00")
+        LocalDateTime dataEmprestimo,
+
+        @Schema(description = "Data prevista para devolução do livro", example = "2024-01-29T10:30:00")
+        LocalDateTime dataDevolucaoPrevista,
+
+        @Schema(description = "Data e hora da devolução", example = "2024-01-20T14:25:00")
+        LocalDateTime dataDevolucao,
+
+        @Schema(description = "Indica se o empréstimo está em atraso", example = "false")
+        Boolean atrasado,
+
+        @Schema(description = "ID do cliente", example = "1")
+        Long clienteId,
+
+        @Schema(description = "Nome do cliente", example = "Maria Santos")
+        String clienteNome,
+
+        @Schema(description = "ID do livro", example = "1")
+        Long livroId,
+
+        @Schema(description = "UUID do livro", example = "123e4567-e89b-12d3-a456-426614174000")
+        UUID livroUuid,
+
+        @Schema(description = "Título do livro", example = "Dom Casmurro")
+        String livroTitulo,
+
+        @Schema(description = "ID do funcionário que registrou a última operação", example = "1")
+        Long funcionarioId,
+
+        @Schema(description = "Nome do funcionário que registrou a última operação", example = "João Silva")
+        String funcionarioNome
+) {
+}
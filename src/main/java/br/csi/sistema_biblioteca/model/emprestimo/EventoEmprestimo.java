@@ -0,0 +1,47 @@
+package br.csi.sistema_biblioteca.model.emprestimo;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "evento_emprestimo")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class EventoEmprestimo {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "id_evento")
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "tipo")
+    private TipoEventoEmprestimo tipo;
+
+    @Column(name = "id_emprestimo")
+    private Long emprestimoId;
+
+    @Column(name = "id_cliente")
+    private Long clienteId;
+
+    @Column(name = "id_livro")
+    private Long livroId;
+
+    @Column(name = "ocorrido_em")
+    private LocalDateTime ocorridoEm;
+
+    @Column(name = "processado_em")
+    private LocalDateTime processadoEm;
+
+    public EventoEmprestimo(TipoEventoEmprestimo tipo, Emprestimo emprestimo) {
+        this.tipo = tipo;
+        this.emprestimoId = emprestimo.getId();
+        this.clienteId = emprestimo.getCliente().getId();
+        this.livroId = emprestimo.getLivro().getId();
+        this.ocorridoEm = LocalDateTime.now();
+    }
+}
@@ -0,0 +1,21 @@
+package br.csi.sistema_biblioteca.model.emprestimo;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+public interface EventoEmprestimoRepository extends JpaRepository<EventoEmprestimo, Long>, EventoEmprestimoRepositoryCustom {
+
+    // Trava o evento até o fim da transação para que nenhum outro despachante o entregue ao mesmo tempo
+    @Query(value = "SELECT * FROM evento_emprestimo WHERE processado_em IS NULL " +
+            "ORDER BY id_evento LIMIT 1 FOR UPDATE", nativeQuery = true)
+    Optional<EventoEmprestimo> findProximoPendenteParaDespacho();
+
+    @Modifying
+    @Query("DELETE FROM EventoEmprestimo e WHERE e.processadoEm < :limite")
+    int excluirProcessadosAntesDe(@Param("limite") LocalDateTime limite);
+}
@@ -0,0 +1,9 @@
+package br.csi.sistema_biblioteca.model.emprestimo;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+
+public interface EventoEmprestimoRepositoryCustom {
+
+    int registrarDevolucoes(Collection<Long> ids, LocalDateTime ocorridoEm);
+}
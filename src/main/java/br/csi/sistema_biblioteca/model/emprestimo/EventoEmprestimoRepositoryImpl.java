@@ -0,0 +1,34 @@
+package br.csi.sistema_biblioteca.model.emprestimo;
+
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.query.NativeQuery;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+
+// Fragmento do EventoEmprestimoRepository com o INSERT nativo dos eventos de devolução em lote
+@RequiredArgsConstructor
+public class EventoEmprestimoRepositoryImpl implements EventoEmprestimoRepositoryCustom {
+
+    private static final String REGISTRAR_DEVOLUCOES = """
+            INSERT INTO evento_emprestimo (tipo, id_emprestimo, id_cliente, id_livro, ocorrido_em)
+            SELECT 'DEVOLUCAO', id_emprestimo, id_cliente, id_livro, :ocorridoEm
+            FROM emprestimo WHERE id_emprestimo IN (:ids) ORDER BY id_emprestimo
+            """;
+
+    private final EntityManager entityManager;
+
+    // Um comando nativo sem tabelas declaradas faz o Hibernate esvaziar todas as regiões do cache
+    // de segundo nível e o cache de consultas; declarando evento_emprestimo (que não fica em
+    // cache) nada é invalidado
+    @Override
+    public int registrarDevolucoes(Collection<Long> ids, LocalDateTime ocorridoEm) {
+        return entityManager.createNativeQuery(REGISTRAR_DEVOLUCOES)
+                .unwrap(NativeQuery.class)
+                .addSynchronizedEntityClass(EventoEmprestimo.class)
+                .setParameter("ids", ids)
+                .setParameter("ocorridoEm", ocorridoEm)
+                .executeUpdate();
+    }
+}
@@ -0,0 +1,29 @@
+package br.csi.sistema_biblioteca.model.emprestimo;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.UUID;
+
+@Schema(description = "Resultado de um item de um empréstimo em lote")
+public record ItemEmprestimoLote(
+        @Schema(description = "UUID do livro solicitado", example = "123e4567-e89b-12d3-a456-426614174000")
+        UUID livroUuid,
+
+        @Schema(description = "Indica se o empréstimo deste item foi realizado", example = "true")
+        boolean sucesso,
+
+        @Schema(description = "Motivo da falha, quando o item não foi emprestado", example = "Livro não disponível para empréstimo")
+        String mensagem,
+
+        @Schema(description = "Empréstimo criado, quando o item foi emprestado")
+        EmprestimoDTO emprestimo
+) {
+
+    public static ItemEmprestimoLote sucesso(UUID livroUuid, Emprestimo emprestimo) {
+        return new ItemEmprestimoLote(livroUuid, true, null, EmprestimoDTO.de(emprestimo));
+    }
+
+    public static ItemEmprestimoLote falha(UUID livroUuid, String mensagem) {
+        return new ItemEmprestimoLote(livroUuid, false, mensagem, null);
+    }
+}
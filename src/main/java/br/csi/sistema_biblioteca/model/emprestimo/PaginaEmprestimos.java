@@ -0,0 +1,22 @@
+package br.csi.sistema_biblioteca.model.emprestimo;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.List;
+
+@Schema(description = "Página do histórico de empréstimos")
+public record PaginaEmprestimos(
+        @Schema(description = "Empréstimos da página, do mais recente para o mais antigo")
+        List<EmprestimoResumo> itens,
+
+        @Schema(description = "Cursor para buscar a próxima página; nulo quando não há mais empréstimos")
+        String proximoCursor
+) {
+
+    public static PaginaEmprestimos de(List<EmprestimoResumo> itens, int tamanho) {
+        String proximoCursor = itens.size() < tamanho
+                ? null
+                : CursorEmprestimo.de(itens.get(itens.size() - 1)).codificar();
+        return new PaginaEmprestimos(itens, proximoCursor);
+    }
+}
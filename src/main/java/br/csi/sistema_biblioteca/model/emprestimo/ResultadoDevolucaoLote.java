@@ -0,0 +1,18 @@
+package br.csi.sistema_biblioteca.model.emprestimo;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.List;
+
+@Schema(description = "Resultado de uma devolução em lote")
+public record ResultadoDevolucaoLote(
+        @Schema(description = "IDs dos empréstimos devolvidos nesta operação")
+        List<Long> devolvidos,
+
+        @Schema(description = "IDs dos empréstimos que já haviam sido devolvidos")
+        List<Long> jaDevolvidos,
+
+        @Schema(description = "IDs informados que não correspondem a nenhum empréstimo")
+        List<Long> naoEncontrados
+) {
+}
@@ -0,0 +1,6 @@
+package br.csi.sistema_biblioteca.model.emprestimo;
+
+public enum TipoEventoEmprestimo {
+    EMPRESTIMO,
+    DEVOLUCAO
+}
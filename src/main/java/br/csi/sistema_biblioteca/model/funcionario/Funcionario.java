@@ -1,17 +1,22 @@
 package br.csi.sistema_biblioteca.model.funcionario;
 
+import com.fasterxml.jackson.annotation.JsonProperty;
+import br.csi.sistema_biblioteca.model.UuidV7;
 import io.swagger.v3.oas.annotations.media.Schema;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Size;
 import lombok.*;
-import org.hibernate.annotations.UuidGenerator;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.util.UUID;
 
 @Entity
 @Table(name = "funcionario")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "funcionario")
 @Getter
 @Setter
 @NoArgsConstructor
@@ -26,7 +31,7 @@ public class Funcionario {
     @Schema(description = "ID único do funcionário", example = "1")
     private Long id;
 
-    @UuidGenerator
+    @Column(updatable = false)
     @Schema(description = "UUID único do funcionário para identificação externa")
     private UUID uuid;
 
@@ -45,9 +50,17 @@ public class Funcionario {
 
     @NonNull
     @NotBlank(message = "Senha é obrigatória")
-    @Schema(description = "Senha de acesso do funcionário")
+    @JsonProperty(access = JsonProperty.Access.WRITE_ONLY)
+    @Schema(description = "Senha de acesso do funcionário", accessMode = Schema.AccessMode.WRITE_ONLY)
     private String senha;
 
     @Schema(description = "Status de atividade do funcionário no sistema", example = "true")
     private Boolean ativo = true;
+
+    @PrePersist
+    protected void gerarUuid() {
+        if (this.uuid == null) {
+            this.uuid = UuidV7.gerar();
+        }
+    }
 }
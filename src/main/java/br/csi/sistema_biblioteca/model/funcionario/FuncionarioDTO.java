@@ -0,0 +1,30 @@
+package br.csi.sistema_biblioteca.model.funcionario;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.UUID;
+
+// Sem a senha: ela só é aceita na entrada, nunca devolvida
+@Schema(description = "Funcionário da biblioteca devolvido pela API")
+public record FuncionarioDTO(
+        @Schema(description = "ID único do funcionário", example = "1")
+        Long id,
+
+        @Schema(description = "UUID único do funcionário para identificação externa")
+        UUID uuid,
+
+        @Schema(description = "Nome completo do funcionário", example = "João Silva")
+        String nome,
+
+        @Schema(description = "E-mail único do funcionário", example = "joao.silva@biblioteca.com")
+        String email,
+
+        @Schema(description = "Status de atividade do funcionário no sistema", example = "true")
+        Boolean ativo
+) {
+
+    public static FuncionarioDTO de(Funcionario funcionario) {
+        return new FuncionarioDTO(funcionario.getId(), funcionario.getUuid(), funcionario.getNome(),
+                funcionario.getEmail(), funcionario.getAtivo());
+    }
+}
@@ -1,7 +1,10 @@
 package br.csi.sistema_biblioteca.model.funcionario;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.AvailableHints;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 
 import java.util.List;
@@ -11,11 +14,18 @@ import java.util.UUID;
 public interface FuncionarioRepository extends JpaRepository<Funcionario, Long> {
 
     Optional<Funcionario> findByUuid(UUID uuid);
+
+    @Query("SELECT f.id FROM Funcionario f WHERE f.uuid = :uuid")
+    Optional<Long> findIdByUuid(@Param("uuid") UUID uuid);
+
     void deleteByUuid(UUID uuid);
 
     Optional<Funcionario> findByEmail(String email);
     boolean existsByEmail(String email);
 
+    // Executada em todo empréstimo e devolução: o resultado fica no cache de consultas e o
+    // funcionário no cache de segundo nível; alterações em funcionario invalidam ambos
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_CACHEABLE, value = "true"))
     @Query("SELECT f FROM Funcionario f WHERE f.id = :id AND f.ativo = true")
     Optional<Funcionario> findByIdAndAtivoTrue(@Param("id") Long id);
 
@@ -1,11 +1,14 @@
 package br.csi.sistema_biblioteca.model.livro_categoria;
 
 import com.fasterxml.jackson.annotation.JsonIgnore; // ← Adicione esta importação
+import br.csi.sistema_biblioteca.model.UuidV7;
 import io.swagger.v3.oas.annotations.media.Schema;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Size;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.JdbcTypeCode;
 import org.hibernate.type.SqlTypes;
 
@@ -15,6 +18,8 @@ import java.util.UUID;
 
 @Entity
 @Table(name = "categoria")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "categoria")
 @Getter
 @Setter
 @NoArgsConstructor
@@ -32,7 +37,7 @@ public class Categoria {
     @JdbcTypeCode(SqlTypes.UUID)
     @Column(name = "uuid", unique = true, nullable = false, updatable = false, columnDefinition = "UUID")
     @Schema(description = "Código UUID único da categoria", example = "123e4567-e89b-12d3-a456-426614174000")
-    private UUID uuid = UUID.randomUUID();
+    private UUID uuid;
 
     @NonNull
     @NotBlank(message = "Nome da categoria é obrigatório")
@@ -49,10 +54,11 @@ public class Categoria {
     @Schema(description = "Conjunto de livros associados a esta categoria")
     private Set<Livro> livros = new HashSet<>();
 
+    // Gerado só na inclusão: um valor no inicializador seria recalculado a cada leitura do banco
     @PrePersist
     protected void gerarUuid() {
         if (this.uuid == null) {
-            this.uuid = UUID.randomUUID();
+            this.uuid = UuidV7.gerar();
         }
     }
 }
\ No newline at end of file
@@ -0,0 +1,25 @@
+package br.csi.sistema_biblioteca.model.livro_categoria;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.UUID;
+
+@Schema(description = "Categoria de livros devolvida pela API")
+public record CategoriaDTO(
+        @Schema(description = "ID único da categoria", example = "1")
+        Long id,
+
+        @Schema(description = "Código UUID único da categoria", example = "123e4567-e89b-12d3-a456-426614174000")
+        UUID uuid,
+
+        @Schema(description = "Nome único da categoria", example = "Romance")
+        String nome,
+
+        @Schema(description = "Descrição detalhada da categoria", example = "Livros de narrativas ficcionais sobre relacionamentos e experiências emocionais")
+        String descricao
+) {
+
+    public static CategoriaDTO de(Categoria categoria) {
+        return new CategoriaDTO(categoria.getId(), categoria.getUuid(), categoria.getNome(), categoria.getDescricao());
+    }
+}
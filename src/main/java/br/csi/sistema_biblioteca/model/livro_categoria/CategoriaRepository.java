@@ -1,9 +1,11 @@
 package br.csi.sistema_biblioteca.model.livro_categoria;
 
+import br.csi.sistema_biblioteca.model.VersaoRecurso;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -12,6 +14,13 @@ public interface CategoriaRepository extends JpaRepository<Categoria, Long> {
 
     Optional<Categoria> findByNome(String nome);
 
+    // Versões para GET condicional (ETag/Last-Modified)
+    @Query(value = VersaoRecurso.COLUNAS + "FROM categoria", nativeQuery = true)
+    VersaoRecurso versaoTodas();
+
+    @Query(value = VersaoRecurso.COLUNAS + "FROM categoria WHERE id_categoria = :id", nativeQuery = true)
+    VersaoRecurso versaoPorId(@Param("id") Long id);
+
     List<Categoria> findByNomeContainingIgnoreCase(String nome);
 
     @Query("SELECT COUNT(l) > 0 FROM Categoria c JOIN c.livros l WHERE c.id = :categoriaId")
@@ -21,13 +30,7 @@ public interface CategoriaRepository extends JpaRepository<Categoria, Long> {
 
     Optional<Categoria> findByUuid(UUID uuid);
 
-    @Query("SELECT COUNT(l) > 0 FROM Categoria c JOIN c.livros l WHERE c.uuid = :categoriaUuid")
-    boolean hasLivrosAssociadosByUuid(@Param("categoriaUuid") UUID categoriaUuid);
-
-    @Query("SELECT COUNT(c) > 0 FROM Categoria c WHERE c.nome = :nome AND c.uuid != :uuid")
-    boolean existsByNomeAndUuidNot(@Param("nome") String nome, @Param("uuid") UUID uuid);
-
-    List<Categoria> findByUuidIn(List<UUID> uuids);
+    List<Categoria> findByUuidIn(Collection<UUID> uuids);
 
     boolean existsByUuid(UUID uuid);
 }
@@ -0,0 +1,10 @@
+package br.csi.sistema_biblioteca.model.livro_categoria;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+@Schema(description = "Linha do arquivo de importação que foi rejeitada")
+public record ErroImportacao(
+        @Schema(description = "Número da linha no arquivo", example = "42") long linha,
+        @Schema(description = "Motivo da rejeição", example = "Categoria não encontrada: Romanse") String mensagem
+) {
+}
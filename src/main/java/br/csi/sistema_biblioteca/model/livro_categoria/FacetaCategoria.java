@@ -0,0 +1,11 @@
+package br.csi.sistema_biblioteca.model.livro_categoria;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+@Schema(description = "Quantidade de livros encontrados em uma categoria")
+public record FacetaCategoria(
+        @Schema(description = "ID da categoria", example = "1") Long id,
+        @Schema(description = "Nome da categoria", example = "Romance") String nome,
+        @Schema(description = "Livros da pesquisa nesta categoria", example = "42") Long quantidade
+) {
+}
@@ -0,0 +1,13 @@
+package br.csi.sistema_biblioteca.model.livro_categoria;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.List;
+
+@Schema(description = "Contagens da pesquisa agrupadas por categoria e por disponibilidade")
+public record FacetasLivro(
+        @Schema(description = "Quantidade por categoria, da maior para a menor") List<FacetaCategoria> categorias,
+        @Schema(description = "Livros disponíveis", example = "120") long disponiveis,
+        @Schema(description = "Livros emprestados", example = "30") long indisponiveis
+) {
+}
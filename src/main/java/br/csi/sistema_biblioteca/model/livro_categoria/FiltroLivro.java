@@ -0,0 +1,22 @@
+package br.csi.sistema_biblioteca.model.livro_categoria;
+
+// Filtros opcionais da pesquisa combinada de livros; campos nulos não restringem o resultado
+public record FiltroLivro(
+        String titulo,
+        String autor,
+        Long categoriaId,
+        Integer anoMinimo,
+        Integer anoMaximo,
+        Boolean disponivel
+) {
+
+    // As contagens de cada faceta ignoram o próprio filtro, para que a interface mostre
+    // quantos livros cada outra opção traria mantendo os demais filtros
+    public FiltroLivro semCategoria() {
+        return new FiltroLivro(titulo, autor, null, anoMinimo, anoMaximo, disponivel);
+    }
+
+    public FiltroLivro semDisponibilidade() {
+        return new FiltroLivro(titulo, autor, categoriaId, anoMinimo, anoMaximo, null);
+    }
+}
@@ -0,0 +1,6 @@
+package br.csi.sistema_biblioteca.model.livro_categoria;
+
+public enum FormatoImportacao {
+    CSV,
+    NDJSON
+}
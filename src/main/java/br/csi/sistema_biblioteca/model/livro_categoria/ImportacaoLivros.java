@@ -0,0 +1,90 @@
+package br.csi.sistema_biblioteca.model.livro_categoria;
+
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Estado de uma importação em andamento. Só a thread da importação altera os contadores;
+// as consultas de andamento leem de outras threads, por isso os campos são atômicos/voláteis.
+public class ImportacaoLivros {
+
+    public enum Status {
+        EM_ANDAMENTO,
+        CONCLUIDA,
+        FALHOU
+    }
+
+    // Limita a memória usada quando um arquivo inteiro está no formato errado
+    private static final int MAXIMO_ERROS_GUARDADOS = 1000;
+
+    @Getter
+    private final UUID id = UUID.randomUUID();
+    @Getter
+    private final FormatoImportacao formato;
+    private final LocalDateTime iniciadaEm = LocalDateTime.now();
+    private volatile Status status = Status.EM_ANDAMENTO;
+    private volatile LocalDateTime concluidaEm;
+    private volatile String falha;
+
+    private final AtomicLong linhasLidas = new AtomicLong();
+    private final AtomicLong linhasValidas = new AtomicLong();
+    private final AtomicLong linhasComErro = new AtomicLong();
+    private final AtomicLong livrosInseridos = new AtomicLong();
+    private final AtomicLong livrosIgnorados = new AtomicLong();
+    private final List<ErroImportacao> erros = new ArrayList<>();
+
+    public ImportacaoLivros(FormatoImportacao formato) {
+        this.formato = formato;
+    }
+
+    public void linhaLida() {
+        linhasLidas.incrementAndGet();
+    }
+
+    public void linhaValida() {
+        linhasValidas.incrementAndGet();
+    }
+
+    public void rejeitar(long linha, String mensagem) {
+        linhasComErro.incrementAndGet();
+        synchronized (erros) {
+            if (erros.size() < MAXIMO_ERROS_GUARDADOS) {
+                erros.add(new ErroImportacao(linha, mensagem));
+            }
+        }
+    }
+
+    public void loteGravado(long linhasNoLote, long inseridos) {
+        livrosInseridos.addAndGet(inseridos);
+        livrosIgnorados.addAndGet(linhasNoLote - inseridos);
+    }
+
+    public long totalInserido() {
+        return livrosInseridos.get();
+    }
+
+    public void concluir() {
+        this.concluidaEm = LocalDateTime.now();
+        this.status = Status.CONCLUIDA;
+    }
+
+    public void falhar(String motivo) {
+        this.falha = motivo;
+        this.concluidaEm = LocalDateTime.now();
+        this.status = Status.FALHOU;
+    }
+
+    public SituacaoImportacao situacao() {
+        List<ErroImportacao> copiaErros;
+        synchronized (erros) {
+            copiaErros = List.copyOf(erros);
+        }
+        return new SituacaoImportacao(id, formato, status, iniciadaEm, concluidaEm,
+                linhasLidas.get(), linhasValidas.get(), linhasComErro.get(),
+                livrosInseridos.get(), livrosIgnorados.get(), falha, copiaErros);
+    }
+}
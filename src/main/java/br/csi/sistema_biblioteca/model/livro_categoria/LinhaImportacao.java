@@ -0,0 +1,14 @@
+package br.csi.sistema_biblioteca.model.livro_categoria;
+
+import java.util.List;
+import java.util.UUID;
+
+// Um livro lido do arquivo de importação; as categorias vêm pelo nome
+public record LinhaImportacao(
+        String titulo,
+        String autor,
+        Integer anoPublicacao,
+        List<String> categorias,
+        UUID uuid
+) {
+}
@@ -1,10 +1,13 @@
 package br.csi.sistema_biblioteca.model.livro_categoria;
 
+import br.csi.sistema_biblioteca.model.UuidV7;
 import io.swagger.v3.oas.annotations.media.Schema;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Size;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.JdbcTypeCode;
 import org.hibernate.type.SqlTypes;
 
@@ -14,6 +17,8 @@ import java.util.UUID;
 
 @Entity
 @Table(name = "livro")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "livro")
 @Getter
 @Setter
 @NoArgsConstructor
@@ -31,7 +36,7 @@ public class Livro {
     @JdbcTypeCode(SqlTypes.UUID)
     @Column(name = "uuid", unique = true, nullable = false, updatable = false, columnDefinition = "UUID")
     @Schema(description = "Código UUID único do livro", example = "123e4567-e89b-12d3-a456-426614174000")
-    private UUID uuid = UUID.randomUUID();
+    private UUID uuid;
 
     @NonNull
     @NotBlank(message = "Título é obrigatório")
@@ -53,6 +58,7 @@ public class Livro {
     private Boolean disponivel = true;
 
     @ManyToMany
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "livro.categorias")
     @JoinTable(
             name = "livro_categoria",
             joinColumns = @JoinColumn(name = "id_livro"),
@@ -61,20 +67,24 @@ public class Livro {
     @Schema(description = "Conjunto de categorias associadas ao livro")
     private Set<Categoria> categorias = new HashSet<>();
 
+    // Gerado só na inclusão: um valor no inicializador seria recalculado a cada leitura do banco
     @PrePersist
     protected void gerarUuid() {
         if (this.uuid == null) {
-            this.uuid = UUID.randomUUID();
+            this.uuid = UuidV7.gerar();
         }
     }
 
+    // Só o lado dono (livro_categoria é mapeada aqui) é alterado: a categoria pode vir do cache,
+    // fora da sessão, e carregar Categoria.livros traria todos os livros da categoria.
+    // A comparação é por ID porque instâncias do cache e da sessão são objetos diferentes.
     public void adicionarCategoria(Categoria categoria) {
-        this.categorias.add(categoria);
-        categoria.getLivros().add(this);
+        if (this.categorias.stream().noneMatch(c -> c.getId().equals(categoria.getId()))) {
+            this.categorias.add(categoria);
+        }
     }
 
     public void removerCategoria(Categoria categoria) {
-        this.categorias.remove(categoria);
-        categoria.getLivros().remove(this);
+        this.categorias.removeIf(c -> c.getId().equals(categoria.getId()));
     }
 }
@@ -0,0 +1,42 @@
+package br.csi.sistema_biblioteca.model.livro_categoria;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+
+@Schema(description = "Livro devolvido pela API, com as categorias associadas")
+public record LivroDTO(
+        @Schema(description = "ID único do livro", example = "1")
+        Long id,
+
+        @Schema(description = "Código UUID único do livro", example = "123e4567-e89b-12d3-a456-426614174000")
+        UUID uuid,
+
+        @Schema(description = "Título completo do livro", example = "Dom Casmurro")
+        String titulo,
+
+        @Schema(description = "Nome do autor do livro", example = "Machado de Assis")
+        String autor,
+
+        @Schema(description = "Ano de publicação do livro", example = "1899")
+        Integer anoPublicacao,
+
+        @Schema(description = "Status de disponibilidade do livro para empréstimo", example = "true")
+        Boolean disponivel,
+
+        @Schema(description = "Categorias associadas ao livro, ordenadas por ID")
+        List<CategoriaDTO> categorias
+) {
+
+    // Precisa da sessão aberta quando as categorias ainda não foram carregadas
+    public static LivroDTO de(Livro livro) {
+        List<CategoriaDTO> categorias = livro.getCategorias().stream()
+                .map(CategoriaDTO::de)
+                .sorted(Comparator.comparing(CategoriaDTO::id))
+                .toList();
+        return new LivroDTO(livro.getId(), livro.getUuid(), livro.getTitulo(), livro.getAutor(),
+                livro.getAnoPublicacao(), livro.getDisponivel(), categorias);
+    }
+}
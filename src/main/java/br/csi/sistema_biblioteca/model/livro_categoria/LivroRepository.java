@@ -1,29 +1,65 @@
 package br.csi.sistema_biblioteca.model.livro_categoria;
 
+import br.csi.sistema_biblioteca.model.VersaoRecurso;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.AvailableHints;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
 
-public interface LivroRepository extends JpaRepository<Livro, Long> {
+public interface LivroRepository extends JpaRepository<Livro, Long>, JpaSpecificationExecutor<Livro>, LivroRepositoryCustom {
 
+    // As listagens devolvem os livros com as categorias, carregadas no mesmo SELECT em vez de
+    // uma consulta por livro ao montar o LivroDTO
+    @Override
+    @EntityGraph(attributePaths = "categorias")
+    List<Livro> findAll();
+
+    @EntityGraph(attributePaths = "categorias")
     List<Livro> findByDisponivelTrue();
 
+    // Versões para GET condicional (ETag/Last-Modified)
+    @Query(value = VersaoRecurso.COLUNAS + "FROM livro", nativeQuery = true)
+    VersaoRecurso versaoTodos();
+
+    @Query(value = VersaoRecurso.COLUNAS + "FROM livro WHERE disponivel = true", nativeQuery = true)
+    VersaoRecurso versaoDisponiveis();
+
+    @Query(value = VersaoRecurso.COLUNAS + "FROM livro WHERE id_livro = :id", nativeQuery = true)
+    VersaoRecurso versaoPorId(@Param("id") Long id);
+
+    @EntityGraph(attributePaths = "categorias")
     List<Livro> findByTituloContainingIgnoreCase(String titulo);
 
+    @EntityGraph(attributePaths = "categorias")
     List<Livro> findByAutorContainingIgnoreCase(String autor);
 
     @Query("SELECT l FROM Livro l WHERE l.disponivel = true AND l.id = :id")
     Optional<Livro> findByIdAndDisponivelTrue(@Param("id") Long id);
 
+    @EntityGraph(attributePaths = "categorias")
     List<Livro> findByTituloContainingIgnoreCaseAndDisponivelTrue(String titulo);
+
+    @EntityGraph(attributePaths = "categorias")
     List<Livro> findByAutorContainingIgnoreCaseAndDisponivelTrue(String autor);
 
     Optional<Livro> findByUuid(UUID uuid);
 
+    // Só o ID, para o ResolvedorUuid; a entidade é lida depois pela chave primária
+    @Query("SELECT l.id FROM Livro l WHERE l.uuid = :uuid")
+    Optional<Long> findIdByUuid(@Param("uuid") UUID uuid);
+
     @Query("SELECT l FROM Livro l WHERE l.disponivel = true AND l.uuid = :uuid")
     Optional<Livro> findByUuidAndDisponivelTrue(@Param("uuid") UUID uuid);
 
@@ -33,4 +69,85 @@ public interface LivroRepository extends JpaRepository<Livro, Long> {
     List<Livro> findByUuidInAndDisponivelTrue(@Param("uuids") List<UUID> uuids);
 
     boolean existsByUuid(UUID uuid);
+
+    // Marca o livro como emprestado somente se ele ainda estiver disponível (lista vazia caso contrário).
+    // Os UPDATEs de disponibilidade são nativos com RETURNING para não invalidar a região "livro"
+    // inteira do cache de segundo nível, como faria um UPDATE em JPQL; quem chama remove do cache
+    // apenas os livros alterados (CacheSegundoNivelService)
+    @Query(value = "UPDATE livro SET disponivel = false WHERE id_livro = :id AND disponivel = true RETURNING id_livro",
+            nativeQuery = true)
+    List<Long> reservarSeDisponivel(@Param("id") Long id);
+
+    // Versão em lote de reservarSeDisponivel: devolve apenas os ids que foram efetivamente reservados
+    @Query(value = "UPDATE livro SET disponivel = false WHERE uuid IN (:uuids) AND disponivel = true RETURNING id_livro",
+            nativeQuery = true)
+    List<Long> reservarDisponiveisPorUuid(@Param("uuids") Collection<UUID> uuids);
+
+    @Query(value = "UPDATE livro SET disponivel = true WHERE id_livro IN (:ids) RETURNING id_livro",
+            nativeQuery = true)
+    List<Long> liberar(@Param("ids") Collection<Long> ids);
+
+    // Busca textual sobre a coluna livro.busca (índice GIN), ordenada por relevância. Devolve só os
+    // IDs; os livros da página são carregados depois com as categorias. O Pageable não pode
+    // trazer Sort: o Spring Data anexaria a ordenação ao SQL nativo depois do ORDER BY
+    @Query(value = "SELECT l.id_livro FROM livro l, to_tsquery('portugues_sem_acento', :consulta) q " +
+            "WHERE l.busca @@ q AND (:somenteDisponiveis = false OR l.disponivel = true) " +
+            "ORDER BY ts_rank(l.busca, q) DESC, l.id_livro",
+            countQuery = "SELECT COUNT(*) FROM livro l " +
+                    "WHERE l.busca @@ to_tsquery('portugues_sem_acento', :consulta) " +
+                    "AND (:somenteDisponiveis = false OR l.disponivel = true)",
+            nativeQuery = true)
+    Page<Long> buscarIdsPorTexto(@Param("consulta") String consulta,
+                                 @Param("somenteDisponiveis") boolean somenteDisponiveis,
+                                 Pageable pageable);
+
+    // Autocompletar por semelhança de trigramas (operador <% usa o índice GIN e o limiar
+    // pg_trgm.word_similarity_threshold definido na conexão)
+    @Query(value = "SELECT l.titulo AS valor, " +
+            "MAX(word_similarity(normalizar_busca(:termo), normalizar_busca(l.titulo))) AS similaridade " +
+            "FROM livro l WHERE normalizar_busca(:termo) <% normalizar_busca(l.titulo) " +
+            "GROUP BY l.titulo ORDER BY similaridade DESC, valor LIMIT :limite",
+            nativeQuery = true)
+    List<SugestaoLivro> sugerirTitulos(@Param("termo") String termo, @Param("limite") int limite);
+
+    @Query(value = "SELECT l.autor AS valor, " +
+            "MAX(word_similarity(normalizar_busca(:termo), normalizar_busca(l.autor))) AS similaridade " +
+            "FROM livro l WHERE normalizar_busca(:termo) <% normalizar_busca(l.autor) " +
+            "GROUP BY l.autor ORDER BY similaridade DESC, valor LIMIT :limite",
+            nativeQuery = true)
+    List<SugestaoLivro> sugerirAutores(@Param("termo") String termo, @Param("limite") int limite);
+
+    // Dados usados na construção dos índices em memória, sem carregar entidades
+    @Query("SELECT l.id, l.uuid, l.titulo, l.autor FROM Livro l ORDER BY l.id")
+    List<Object[]> findDadosParaIndice();
+
+    @Query("SELECT l.id, c.nome FROM Livro l JOIN l.categorias c")
+    List<Object[]> findNomesCategoriasPorLivro();
+
+    @Query("SELECT l.id FROM Livro l")
+    List<Long> findTodosIds();
+
+    @Query("SELECT l.id FROM Livro l WHERE l.disponivel = true")
+    List<Long> findIdsDisponiveis();
+
+    @Query("SELECT c.id, l.id FROM Livro l JOIN l.categorias c")
+    List<Object[]> findIdsCategoriaLivro();
+
+    // Livros por categoria em duas etapas: a página de IDs sai do índice de livro_categoria
+    // e só então os livros da página são carregados junto com suas categorias
+    @Query(value = "SELECT l.id FROM Livro l JOIN l.categorias c WHERE c.id = :categoriaId",
+            countQuery = "SELECT COUNT(l) FROM Livro l JOIN l.categorias c WHERE c.id = :categoriaId")
+    Page<Long> findIdsPorCategoria(@Param("categoriaId") Long categoriaId, Pageable pageable);
+
+    @Query("SELECT DISTINCT l FROM Livro l LEFT JOIN FETCH l.categorias WHERE l.id IN :ids")
+    List<Livro> findComCategoriasPorIds(@Param("ids") Collection<Long> ids);
+
+    // Exportação: lida em blocos pelo cursor; a ordenação por id mantém juntas as linhas de cada
+    // livro, o que o Hibernate exige para montar a coleção buscada com JOIN FETCH em um stream
+    @QueryHints({
+            @QueryHint(name = AvailableHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = AvailableHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT l FROM Livro l LEFT JOIN FETCH l.categorias ORDER BY l.id")
+    Stream<Livro> streamTodosComCategorias();
 }
@@ -0,0 +1,11 @@
+package br.csi.sistema_biblioteca.model.livro_categoria;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+
+public interface LivroRepositoryCustom {
+
+    FacetasLivro contarFacetas(FiltroLivro filtro);
+
+    Page<Long> findIdsPorFiltro(FiltroLivro filtro, Pageable pageable);
+}
@@ -0,0 +1,103 @@
+package br.csi.sistema_biblioteca.model.livro_categoria;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.data.support.PageableExecutionUtils;
+
+import java.util.List;
+
+// Fragmento do LivroRepository com a página de IDs da pesquisa e as consultas de facetas,
+// montadas via Criteria sobre os mesmos predicados de LivroSpecifications
+@RequiredArgsConstructor
+public class LivroRepositoryImpl implements LivroRepositoryCustom {
+
+    private final EntityManager entityManager;
+
+    @Override
+    public FacetasLivro contarFacetas(FiltroLivro filtro) {
+        List<FacetaCategoria> categorias = contarPorCategoria(filtro.semCategoria());
+
+        long disponiveis = 0;
+        long indisponiveis = 0;
+        for (Tuple linha : contarPorDisponibilidade(filtro.semDisponibilidade())) {
+            if (Boolean.TRUE.equals(linha.get(0, Boolean.class))) {
+                disponiveis += linha.get(1, Long.class);
+            } else {
+                indisponiveis += linha.get(1, Long.class);
+            }
+        }
+        return new FacetasLivro(categorias, disponiveis, indisponiveis);
+    }
+
+    // Só os IDs da página: os livros e as categorias são carregados depois em uma única consulta
+    @Override
+    public Page<Long> findIdsPorFiltro(FiltroLivro filtro, Pageable pageable) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = cb.createQuery(Long.class);
+        Root<Livro> livro = query.from(Livro.class);
+
+        query.select(livro.get("id"))
+                .orderBy(QueryUtils.toOrders(pageable.getSort(), livro, cb));
+        aplicarFiltro(filtro, livro, query, cb);
+
+        TypedQuery<Long> consulta = entityManager.createQuery(query);
+        if (pageable.isPaged()) {
+            consulta.setFirstResult(Math.toIntExact(pageable.getOffset()));
+            consulta.setMaxResults(pageable.getPageSize());
+        }
+        return PageableExecutionUtils.getPage(consulta.getResultList(), pageable, () -> contar(filtro));
+    }
+
+    private long contar(FiltroLivro filtro) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = cb.createQuery(Long.class);
+        Root<Livro> livro = query.from(Livro.class);
+
+        query.select(cb.count(livro));
+        aplicarFiltro(filtro, livro, query, cb);
+        return entityManager.createQuery(query).getSingleResult();
+    }
+
+    private List<FacetaCategoria> contarPorCategoria(FiltroLivro filtro) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<FacetaCategoria> query = cb.createQuery(FacetaCategoria.class);
+        Root<Livro> livro = query.from(Livro.class);
+        Join<Livro, Categoria> categoria = livro.join("categorias");
+        Expression<Long> quantidade = cb.count(livro);
+
+        query.select(cb.construct(FacetaCategoria.class, categoria.get("id"), categoria.get("nome"), quantidade))
+                .groupBy(categoria.get("id"), categoria.get("nome"))
+                .orderBy(cb.desc(quantidade), cb.asc(categoria.get("nome")));
+        aplicarFiltro(filtro, livro, query, cb);
+        return entityManager.createQuery(query).getResultList();
+    }
+
+    private List<Tuple> contarPorDisponibilidade(FiltroLivro filtro) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<Livro> livro = query.from(Livro.class);
+
+        query.multiselect(livro.get("disponivel"), cb.count(livro))
+                .groupBy(livro.get("disponivel"));
+        aplicarFiltro(filtro, livro, query, cb);
+        return entityManager.createQuery(query).getResultList();
+    }
+
+    private void aplicarFiltro(FiltroLivro filtro, Root<Livro> livro, CriteriaQuery<?> query, CriteriaBuilder cb) {
+        Predicate predicado = LivroSpecifications.comFiltro(filtro).toPredicate(livro, query, cb);
+        if (predicado != null) {
+            query.where(predicado);
+        }
+    }
+}
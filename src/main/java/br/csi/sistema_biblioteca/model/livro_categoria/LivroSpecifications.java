@@ -0,0 +1,64 @@
+package br.csi.sistema_biblioteca.model.livro_categoria;
+
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.Expression;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public final class LivroSpecifications {
+
+    private LivroSpecifications() {
+    }
+
+    public static Specification<Livro> comFiltro(FiltroLivro filtro) {
+        List<Specification<Livro>> especificacoes = new ArrayList<>();
+        if (temTexto(filtro.titulo())) {
+            especificacoes.add(contem("titulo", filtro.titulo()));
+        }
+        if (temTexto(filtro.autor())) {
+            especificacoes.add(contem("autor", filtro.autor()));
+        }
+        if (filtro.categoriaId() != null) {
+            especificacoes.add(naCategoria(filtro.categoriaId()));
+        }
+        if (filtro.anoMinimo() != null) {
+            especificacoes.add((root, query, cb) -> cb.greaterThanOrEqualTo(root.<Integer>get("anoPublicacao"), filtro.anoMinimo()));
+        }
+        if (filtro.anoMaximo() != null) {
+            especificacoes.add((root, query, cb) -> cb.lessThanOrEqualTo(root.<Integer>get("anoPublicacao"), filtro.anoMaximo()));
+        }
+        if (filtro.disponivel() != null) {
+            especificacoes.add((root, query, cb) -> cb.equal(root.get("disponivel"), filtro.disponivel()));
+        }
+        return Specification.allOf(especificacoes);
+    }
+
+    // Compara com normalizar_busca() dos dois lados para usar os índices de trigramas
+    // de título e autor (V9), que também atendem LIKE '%...%'
+    private static Specification<Livro> contem(String atributo, String texto) {
+        String padrao = "%" + escaparCuringas(texto.strip()) + "%";
+        return (root, query, cb) -> cb.like(
+                normalizado(cb, root.<String>get(atributo)),
+                normalizado(cb, cb.literal(padrao)),
+                '\\');
+    }
+
+    private static Specification<Livro> naCategoria(Long categoriaId) {
+        // Um livro tem no máximo uma linha por categoria, então o join não duplica resultados
+        return (root, query, cb) -> cb.equal(root.join("categorias").get("id"), categoriaId);
+    }
+
+    private static Expression<String> normalizado(CriteriaBuilder cb, Expression<String> expressao) {
+        return cb.function("normalizar_busca", String.class, expressao);
+    }
+
+    private static String escaparCuringas(String texto) {
+        return texto.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+
+    private static boolean temTexto(String texto) {
+        return texto != null && !texto.isBlank();
+    }
+}
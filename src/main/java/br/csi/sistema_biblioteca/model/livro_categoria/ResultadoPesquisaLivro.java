@@ -0,0 +1,11 @@
+package br.csi.sistema_biblioteca.model.livro_categoria;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import org.springframework.data.web.PagedModel;
+
+@Schema(description = "Página de livros da pesquisa combinada junto com as contagens por faceta")
+public record ResultadoPesquisaLivro(
+        @Schema(description = "Livros da página solicitada") PagedModel<LivroDTO> livros,
+        @Schema(description = "Contagens por categoria e disponibilidade") FacetasLivro facetas
+) {
+}
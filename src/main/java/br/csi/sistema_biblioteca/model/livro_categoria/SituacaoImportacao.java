@@ -0,0 +1,24 @@
+package br.csi.sistema_biblioteca.model.livro_categoria;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+@Schema(description = "Andamento de uma importação de livros em lote")
+public record SituacaoImportacao(
+        @Schema(description = "ID da importação") UUID id,
+        @Schema(description = "Formato do arquivo") FormatoImportacao formato,
+        @Schema(description = "Situação atual") ImportacaoLivros.Status status,
+        @Schema(description = "Início da importação") LocalDateTime iniciadaEm,
+        @Schema(description = "Fim da importação, se já terminou") LocalDateTime concluidaEm,
+        @Schema(description = "Linhas lidas até agora") long linhasLidas,
+        @Schema(description = "Linhas válidas enviadas ao banco") long linhasValidas,
+        @Schema(description = "Linhas rejeitadas") long linhasComErro,
+        @Schema(description = "Livros gravados") long livrosInseridos,
+        @Schema(description = "Linhas válidas ignoradas por repetirem o UUID de um livro existente") long livrosIgnorados,
+        @Schema(description = "Motivo da falha, quando a importação foi interrompida") String falha,
+        @Schema(description = "Primeiras linhas rejeitadas (até 1000)") List<ErroImportacao> erros
+) {
+}
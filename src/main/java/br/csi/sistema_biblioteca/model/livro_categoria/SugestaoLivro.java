@@ -0,0 +1,13 @@
+package br.csi.sistema_biblioteca.model.livro_categoria;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+@Schema(description = "Sugestão de autocompletar para título ou autor")
+public interface SugestaoLivro {
+
+    @Schema(description = "Título ou autor sugerido", example = "Machado de Assis")
+    String getValor();
+
+    @Schema(description = "Semelhança entre o termo digitado e a sugestão (0 a 1)", example = "0.72")
+    Double getSimilaridade();
+}
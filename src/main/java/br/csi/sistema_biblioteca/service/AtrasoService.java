@@ -0,0 +1,26 @@
+package br.csi.sistema_biblioteca.service;
+
+import br.csi.sistema_biblioteca.model.emprestimo.EmprestimoRepository;
+import jakarta.transaction.Transactional;
+import lombok.RequiredArgsConstructor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+
+@Service
+@RequiredArgsConstructor
+public class AtrasoService {
+
+    private final EmprestimoRepository emprestimoRepository;
+
+    // Marca como atrasados os empréstimos que venceram desde a última execução e desfaz a
+    // marcação de empréstimos cujo prazo foi estendido; ambos usam índices parciais pequenos
+    @Scheduled(fixedDelayString = "${biblioteca.atrasos.intervalo-ms:60000}")
+    @Transactional
+    public void atualizarAtrasos() {
+        LocalDateTime agora = LocalDateTime.now();
+        this.emprestimoRepository.marcarAtrasados(agora);
+        this.emprestimoRepository.desmarcarNoPrazo(agora);
+    }
+}
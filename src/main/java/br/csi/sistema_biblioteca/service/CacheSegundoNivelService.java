@@ -0,0 +1,92 @@
+package br.csi.sistema_biblioteca.service;
+
+import br.csi.sistema_biblioteca.model.livro_categoria.Livro;
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+@Service
+@RequiredArgsConstructor
+public class CacheSegundoNivelService {
+
+    private final EntityManagerFactory entityManagerFactory;
+
+    @Schema(description = "Uso de uma região do cache de segundo nível")
+    public record EstatisticasRegiao(
+            @Schema(description = "Nome da região", example = "livro") String regiao,
+            @Schema(description = "Leituras atendidas pelo cache") long acertos,
+            @Schema(description = "Leituras que foram ao banco") long falhas,
+            @Schema(description = "Entradas gravadas no cache") long insercoes
+    ) {
+    }
+
+    @Schema(description = "Estatísticas do Hibernate desde a última vez que foram zeradas")
+    public record EstatisticasSegundoNivel(
+            @Schema(description = "Comandos SQL preparados (consultas e escritas)") long comandosSql,
+            @Schema(description = "Consultas JPQL/SQL executadas no banco") long consultasExecutadas,
+            @Schema(description = "Entidades carregadas do banco") long entidadesCarregadas,
+            @Schema(description = "Acertos do cache de segundo nível") long acertosSegundoNivel,
+            @Schema(description = "Falhas do cache de segundo nível") long falhasSegundoNivel,
+            @Schema(description = "Acertos do cache de consultas") long acertosConsultas,
+            @Schema(description = "Falhas do cache de consultas") long falhasConsultas,
+            @Schema(description = "Detalhe por região") List<EstatisticasRegiao> regioes
+    ) {
+    }
+
+    // UPDATEs nativos com RETURNING não passam pelo Hibernate, que então não sabe que os livros
+    // mudaram. A entrada é removida agora, para que a própria transação leia o valor novo, e de
+    // novo ao terminar, porque outra transação pode ter recolocado no cache o valor antigo
+    // (ainda visível para ela) antes do commit.
+    public void removerLivros(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return;
+        }
+        List<Long> copia = List.copyOf(ids);
+        evict(copia);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    evict(copia);
+                }
+            });
+        }
+    }
+
+    public EstatisticasSegundoNivel estatisticas() {
+        Statistics stats = estatisticasHibernate();
+        List<EstatisticasRegiao> regioes = Arrays.stream(stats.getSecondLevelCacheRegionNames())
+                .sorted()
+                .map(nome -> {
+                    CacheRegionStatistics regiao = stats.getCacheRegionStatistics(nome);
+                    return new EstatisticasRegiao(nome, regiao.getHitCount(), regiao.getMissCount(), regiao.getPutCount());
+                })
+                .toList();
+        return new EstatisticasSegundoNivel(stats.getPrepareStatementCount(), stats.getQueryExecutionCount(),
+                stats.getEntityLoadCount(), stats.getSecondLevelCacheHitCount(), stats.getSecondLevelCacheMissCount(),
+                stats.getQueryCacheHitCount(), stats.getQueryCacheMissCount(), regioes);
+    }
+
+    public void zerarEstatisticas() {
+        estatisticasHibernate().clear();
+    }
+
+    private void evict(List<Long> ids) {
+        jakarta.persistence.Cache cache = entityManagerFactory.getCache();
+        ids.forEach(id -> cache.evict(Livro.class, id));
+    }
+
+    private Statistics estatisticasHibernate() {
+        return entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+}
@@ -1,43 +1,98 @@
 package br.csi.sistema_biblioteca.service;
 
+import br.csi.sistema_biblioteca.infra.EstatisticasCache;
+import br.csi.sistema_biblioteca.model.VersaoRecurso;
 import br.csi.sistema_biblioteca.model.livro_categoria.Categoria;
 import br.csi.sistema_biblioteca.model.livro_categoria.CategoriaRepository;
-import lombok.RequiredArgsConstructor;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.web.server.ResponseStatusException;
 
+import java.time.Duration;
+import java.util.Collection;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
-@RequiredArgsConstructor
 public class CategoriaService {
 
     private final CategoriaRepository categoriaRepository;
 
+    // Categorias mudam raramente e são lidas em toda atualização de livro e listagem.
+    // As entradas ficam desanexadas da sessão; qualquer escrita limpa todos os caches,
+    // e a expiração cobre alterações feitas direto no banco.
+    private final Cache<Long, Categoria> cachePorId;
+    private final Cache<UUID, Categoria> cachePorUuid;
+    private final Cache<String, Categoria> cachePorNome;
+    private final Cache<Boolean, List<Categoria>> cacheTodas;
+
+    public CategoriaService(CategoriaRepository categoriaRepository,
+                            @Value("${biblioteca.cache.categorias.tamanho-maximo:1000}") long tamanhoMaximo,
+                            @Value("${biblioteca.cache.categorias.expiracao-minutos:10}") long expiracaoMinutos) {
+        this.categoriaRepository = categoriaRepository;
+        Duration expiracao = Duration.ofMinutes(expiracaoMinutos);
+        this.cachePorId = novoCache(tamanhoMaximo, expiracao);
+        this.cachePorUuid = novoCache(tamanhoMaximo, expiracao);
+        this.cachePorNome = novoCache(tamanhoMaximo, expiracao);
+        this.cacheTodas = novoCache(1, expiracao);
+    }
+
+    private static <K, V> Cache<K, V> novoCache(long tamanhoMaximo, Duration expiracao) {
+        return Caffeine.newBuilder()
+                .maximumSize(tamanhoMaximo)
+                .expireAfterWrite(expiracao)
+                .recordStats()
+                .build();
+    }
+
     public Categoria salvar(Categoria categoria) {
         if (categoriaRepository.findByNomeIgnoreCase(categoria.getNome()).isPresent()) {
             throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Já existe uma categoria com este nome");
         }
-        return this.categoriaRepository.save(categoria);
+        Categoria salva = this.categoriaRepository.save(categoria);
+        invalidarCache();
+        return salva;
     }
 
     public List<Categoria> listarTodas() {
-        return this.categoriaRepository.findAll();
+        return this.cacheTodas.get(Boolean.TRUE, chave -> List.copyOf(this.categoriaRepository.findAll()));
     }
 
     public Categoria buscarPorId(Long id) {
-        return this.categoriaRepository.findById(id)
+        return Optional.ofNullable(this.cachePorId.get(id, chave -> this.categoriaRepository.findById(chave).orElse(null)))
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Categoria não encontrada"));
     }
 
     public Categoria buscarPorUuid(UUID uuid) {
-        return this.categoriaRepository.findByUuid(uuid)
+        return Optional.ofNullable(this.cachePorUuid.get(uuid, chave -> this.categoriaRepository.findByUuid(chave).orElse(null)))
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Categoria não encontrada"));
     }
 
+    // Categorias ainda não carregadas são buscadas juntas, em uma consulta só
+    public List<Categoria> buscarTodasPorIds(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        return List.copyOf(this.cachePorId.getAll(ids, faltantes -> this.categoriaRepository.findAllById(List.copyOf(faltantes)).stream()
+                .collect(Collectors.toMap(Categoria::getId, Function.identity()))).values());
+    }
+
+    public List<Categoria> buscarTodasPorUuids(Collection<UUID> uuids) {
+        if (uuids.isEmpty()) {
+            return List.of();
+        }
+        return List.copyOf(this.cachePorUuid.getAll(uuids, faltantes -> this.categoriaRepository.findByUuidIn(List.copyOf(faltantes)).stream()
+                .collect(Collectors.toMap(Categoria::getUuid, Function.identity()))).values());
+    }
+
     public void excluir(Long id) {
         Categoria categoria = buscarPorId(id);
 
@@ -47,17 +102,12 @@ public class CategoriaService {
         }
 
         this.categoriaRepository.delete(categoria);
+        invalidarCache();
     }
 
+    // O UUID é resolvido pelo cache de categorias e o restante segue pelo ID
     public void excluirPorUuid(UUID uuid) {
-        Categoria categoria = buscarPorUuid(uuid);
-
-        // Verificar se a categoria possui livros associados
-        if (categoriaRepository.hasLivrosAssociadosByUuid(uuid)) {
-            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Categoria possui livros associados e não pode ser excluída");
-        }
-
-        this.categoriaRepository.delete(categoria);
+        excluir(buscarPorUuid(uuid).getId());
     }
 
     public Categoria atualizar(Long id, Categoria categoria) {
@@ -74,30 +124,58 @@ public class CategoriaService {
         c.setNome(categoria.getNome());
         c.setDescricao(categoria.getDescricao());
 
-        return this.categoriaRepository.save(c);
+        Categoria atualizada = this.categoriaRepository.save(c);
+        invalidarCache();
+        return atualizada;
     }
 
     public Categoria atualizarPorUuid(UUID uuid, Categoria categoria) {
-        Categoria c = this.categoriaRepository.findByUuid(uuid)
-                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Categoria não encontrada"));
-
-        // Verificar se o nome já existe em outra categoria
-        if (categoriaRepository.existsByNomeAndUuidNot(categoria.getNome(), uuid)) {
-            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Já existe uma categoria com este nome");
-        }
-
-        c.setNome(categoria.getNome());
-        c.setDescricao(categoria.getDescricao());
-
-        return this.categoriaRepository.save(c);
+        return atualizar(buscarPorUuid(uuid).getId(), categoria);
     }
 
     public Categoria buscarPorNome(String nome) {
-        return this.categoriaRepository.findByNomeIgnoreCase(nome)
+        return Optional.ofNullable(this.cachePorNome.get(nome.strip().toLowerCase(Locale.ROOT),
+                        chave -> this.categoriaRepository.findByNomeIgnoreCase(nome.strip()).orElse(null)))
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Categoria não encontrada"));
     }
 
     public List<Categoria> buscarPorNomeParcial(String nome) {
         return this.categoriaRepository.findByNomeContainingIgnoreCase(nome);
     }
-}
\ No newline at end of file
+
+    // Não passam pelo cache: precisam refletir alterações feitas por qualquer instância
+    public VersaoRecurso versaoCategorias() {
+        return this.categoriaRepository.versaoTodas();
+    }
+
+    public VersaoRecurso versaoCategoria(Long id) {
+        return existente(this.categoriaRepository.versaoPorId(id));
+    }
+
+    public VersaoRecurso versaoCategoriaPorUuid(UUID uuid) {
+        return versaoCategoria(buscarPorUuid(uuid).getId());
+    }
+
+    private static VersaoRecurso existente(VersaoRecurso versao) {
+        if (versao.getQuantidade() == 0) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Categoria não encontrada");
+        }
+        return versao;
+    }
+
+    public void invalidarCache() {
+        this.cachePorId.invalidateAll();
+        this.cachePorUuid.invalidateAll();
+        this.cachePorNome.invalidateAll();
+        this.cacheTodas.invalidateAll();
+    }
+
+    public List<EstatisticasCache> estatisticasCache() {
+        Map<String, Cache<?, ?>> caches = Map.of(
+                "porId", cachePorId, "porUuid", cachePorUuid, "porNome", cachePorNome, "todas", cacheTodas);
+        return caches.entrySet().stream()
+                .sorted(Map.Entry.comparingByKey())
+                .map(e -> EstatisticasCache.de(e.getKey(), e.getValue()))
+                .toList();
+    }
+}
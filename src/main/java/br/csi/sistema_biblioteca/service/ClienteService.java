@@ -16,13 +16,16 @@ import java.util.UUID;
 public class ClienteService {
 
     private final ClienteRepository clienteRepository;
+    private final ResolvedorUuid resolvedorUuid;
 
-    public void salvar(Cliente cliente) {
+    public Cliente salvar(Cliente cliente) {
         Optional<Cliente> clienteExistente = clienteRepository.findByCpf(cliente.getCpf());
         if (clienteExistente.isPresent()) {
             throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "CPF já cadastrado");
         }
-        this.clienteRepository.save(cliente);
+        Cliente salvo = this.clienteRepository.save(cliente);
+        this.resolvedorUuid.registrar(ResolvedorUuid.Tipo.CLIENTE, salvo.getUuid(), salvo.getId());
+        return salvo;
     }
 
     public List<Cliente> listarTodos() {
@@ -35,7 +38,12 @@ public class ClienteService {
     }
 
     public Cliente buscarPorUuid(UUID uuid) {
-        return this.clienteRepository.findByUuid(uuid)
+        return buscarPorId(idPorUuid(uuid));
+    }
+
+    // As rotas /uuid/ resolvem o ID em memória e seguem pela chave primária
+    private Long idPorUuid(UUID uuid) {
+        return this.resolvedorUuid.resolver(ResolvedorUuid.Tipo.CLIENTE, uuid)
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Cliente não encontrado"));
     }
 
@@ -43,25 +51,19 @@ public class ClienteService {
         Cliente cliente = buscarPorId(id);
 
         // Verificar se cliente tem empréstimos ativos
-        if (clienteRepository.hasEmprestimosAtivos(id)) {
+        if (cliente.getEmprestimosAtivos() > 0) {
             throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Cliente possui empréstimos ativos");
         }
 
         this.clienteRepository.delete(cliente);
+        this.resolvedorUuid.remover(ResolvedorUuid.Tipo.CLIENTE, cliente.getUuid());
     }
 
     public void excluirPorUuid(UUID uuid) {
-        Cliente cliente = buscarPorUuid(uuid);
-
-        // Verificar se cliente tem empréstimos ativos
-        if (clienteRepository.hasEmprestimosAtivosByUuid(uuid)) {
-            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Cliente possui empréstimos ativos");
-        }
-
-        this.clienteRepository.delete(cliente);
+        excluir(idPorUuid(uuid));
     }
 
-    public void atualizar(Long id, Cliente cliente) {
+    public Cliente atualizar(Long id, Cliente cliente) {
         Cliente c = this.clienteRepository.findById(id)
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Cliente não encontrado"));
 
@@ -76,25 +78,11 @@ public class ClienteService {
         c.setTelefone(cliente.getTelefone());
         c.setEndereco(cliente.getEndereco());
 
-        this.clienteRepository.save(c);
+        return this.clienteRepository.save(c);
     }
 
-    public void atualizarPorUuid(Cliente cliente) {
-        Cliente c = this.clienteRepository.findByUuid(cliente.getUuid())
-                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Cliente não encontrado"));
-
-        // Verificar se CPF já existe em outro cliente
-        Optional<Cliente> clienteComCpf = clienteRepository.findByCpf(cliente.getCpf());
-        if (clienteComCpf.isPresent() && !clienteComCpf.get().getUuid().equals(cliente.getUuid())) {
-            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "CPF já cadastrado em outro cliente");
-        }
-
-        c.setNome(cliente.getNome());
-        c.setCpf(cliente.getCpf());
-        c.setTelefone(cliente.getTelefone());
-        c.setEndereco(cliente.getEndereco());
-
-        this.clienteRepository.save(c);
+    public Cliente atualizarPorUuid(Cliente cliente) {
+        return atualizar(idPorUuid(cliente.getUuid()), cliente);
     }
 
     public Cliente buscarPorCpf(String cpf) {
@@ -103,20 +91,10 @@ public class ClienteService {
     }
 
     public Cliente getClienteUUID(String uuid) {
-        UUID uuidFormatado = UUID.fromString(uuid);
-        return this.clienteRepository.findByUuid(uuidFormatado)
-                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Cliente não encontrado"));
+        return buscarPorUuid(UUID.fromString(uuid));
     }
 
     public void deletarUUID(String uuid) {
-        UUID uuidFormatado = UUID.fromString(uuid);
-        Cliente cliente = buscarPorUuid(uuidFormatado);
-
-        // Verificar se cliente tem empréstimos ativos
-        if (clienteRepository.hasEmprestimosAtivosByUuid(uuidFormatado)) {
-            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Cliente possui empréstimos ativos");
-        }
-
-        this.clienteRepository.delete(cliente);
+        excluirPorUuid(UUID.fromString(uuid));
     }
 }
\ No newline at end of file
@@ -2,20 +2,40 @@ package br.csi.sistema_biblioteca.service;
 
 import br.csi.sistema_biblioteca.model.cliente.Cliente;
 import br.csi.sistema_biblioteca.model.cliente.ClienteRepository;
+import br.csi.sistema_biblioteca.model.emprestimo.CursorEmprestimo;
 import br.csi.sistema_biblioteca.model.emprestimo.Emprestimo;
 import br.csi.sistema_biblioteca.model.emprestimo.EmprestimoRepository;
+import br.csi.sistema_biblioteca.model.emprestimo.EmprestimoResumo;
+import br.csi.sistema_biblioteca.model.emprestimo.EventoEmprestimo;
+import br.csi.sistema_biblioteca.model.emprestimo.EventoEmprestimoRepository;
+import br.csi.sistema_biblioteca.model.emprestimo.ItemEmprestimoLote;
+import br.csi.sistema_biblioteca.model.emprestimo.PaginaEmprestimos;
+import br.csi.sistema_biblioteca.model.emprestimo.ResultadoDevolucaoLote;
+import br.csi.sistema_biblioteca.model.emprestimo.TipoEventoEmprestimo;
 import br.csi.sistema_biblioteca.model.funcionario.Funcionario;
 import br.csi.sistema_biblioteca.model.funcionario.FuncionarioRepository;
 import br.csi.sistema_biblioteca.model.livro_categoria.Livro;
 import br.csi.sistema_biblioteca.model.livro_categoria.LivroRepository;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.web.server.ResponseStatusException;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
 
 @Service
 @RequiredArgsConstructor
@@ -25,39 +45,114 @@ public class EmprestimoService {
     private final ClienteRepository clienteRepository;
     private final LivroRepository livroRepository;
     private final FuncionarioRepository funcionarioRepository;
+    private final EventoEmprestimoRepository eventoEmprestimoRepository;
+    private final CacheSegundoNivelService cacheSegundoNivelService;
+
+    private static final int LIMITE_EMPRESTIMOS_ATIVOS = 3;
+    private static final int TAMANHO_MAXIMO_PAGINA = 100;
 
     @Transactional
     public Emprestimo realizarEmprestimo(Long clienteId, Long livroId, Long funcionarioId) {
         // Verificar se cliente existe
-        Cliente cliente = clienteRepository.findById(clienteId)
+        Cliente cliente = clienteRepository.findByIdParaEmprestimo(clienteId)
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Cliente não encontrado"));
 
-        // Verificar se livro existe e está disponível
-        Livro livro = livroRepository.findByIdAndDisponivelTrue(livroId)
-                .orElseThrow(() -> new ResponseStatusException(HttpStatus.BAD_REQUEST, "Livro não disponível para empréstimo"));
-
         // Verificar se funcionário existe e está ativo
         Funcionario funcionario = funcionarioRepository.findByIdAndAtivoTrue(funcionarioId)
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.BAD_REQUEST, "Funcionário não está ativo"));
 
         // Verificar se cliente não tem muitos empréstimos ativos (máximo 3)
-        int emprestimosAtivos = emprestimoRepository.countEmprestimosAtivosPorCliente(clienteId);
-        if (emprestimosAtivos >= 3) {
+        if (cliente.getEmprestimosAtivos() >= LIMITE_EMPRESTIMOS_ATIVOS) {
             throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Cliente atingiu o limite de empréstimos ativos");
         }
 
-        // Verificar se livro já está emprestado
-        emprestimoRepository.findEmprestimoAtivoPorLivro(livroId)
-                .ifPresent(e -> {
-                    throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Livro já está emprestado");
-                });
+        // Reservar o livro com um único UPDATE condicional: entre duas requisições
+        // concorrentes para o mesmo exemplar, apenas uma consegue marcá-lo como indisponível
+        List<Long> reservado = livroRepository.reservarSeDisponivel(livroId);
+        if (reservado.isEmpty()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Livro não disponível para empréstimo");
+        }
+        cacheSegundoNivelService.removerLivros(reservado);
+
+        Livro livro = livroRepository.findById(livroId)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Livro não encontrado"));
 
         Emprestimo emprestimo = new Emprestimo(cliente, livro, funcionario);
 
-        livro.setDisponivel(false);
-        livroRepository.save(livro);
+        // A tabela emprestimo_aberto (mantida por trigger) impede um segundo empréstimo em aberto
+        // para o mesmo livro mesmo que a flag disponivel esteja inconsistente
+        try {
+            this.emprestimoRepository.saveAndFlush(emprestimo);
+        } catch (DataIntegrityViolationException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Livro já está emprestado");
+        }
 
-        return this.emprestimoRepository.save(emprestimo);
+        this.eventoEmprestimoRepository.save(new EventoEmprestimo(TipoEventoEmprestimo.EMPRESTIMO, emprestimo));
+        return emprestimo;
+    }
+
+    @Transactional
+    public List<ItemEmprestimoLote> realizarEmprestimoEmLote(Long clienteId, Long funcionarioId, List<UUID> livroUuids) {
+        Cliente cliente = clienteRepository.findByIdParaEmprestimo(clienteId)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Cliente não encontrado"));
+
+        Funcionario funcionario = funcionarioRepository.findByIdAndAtivoTrue(funcionarioId)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.BAD_REQUEST, "Funcionário não está ativo"));
+
+        // O limite é verificado uma única vez para o lote inteiro
+        int vagas = LIMITE_EMPRESTIMOS_ATIVOS - cliente.getEmprestimosAtivos();
+        List<UUID> pedidos = new ArrayList<>(new LinkedHashSet<>(livroUuids));
+
+        // Reservar todos os livros pedidos com um único UPDATE condicional: só depois de saber quais
+        // estavam disponíveis é que as vagas são distribuídas, para que um livro indisponível no
+        // início do pedido não tire a vaga de um disponível mais adiante
+        Map<UUID, Livro> reservados = new HashMap<>();
+        if (vagas > 0) {
+            List<Long> idsReservados = livroRepository.reservarDisponiveisPorUuid(pedidos);
+            cacheSegundoNivelService.removerLivros(idsReservados);
+            livroRepository.findAllById(idsReservados).forEach(l -> reservados.put(l.getUuid(), l));
+        }
+
+        // Preencher as vagas na ordem do pedido com os livros efetivamente reservados
+        Map<UUID, Emprestimo> emprestados = new LinkedHashMap<>();
+        Map<UUID, String> falhas = new HashMap<>();
+        List<Long> excedentes = new ArrayList<>();
+        for (UUID uuid : pedidos) {
+            Livro livro = reservados.get(uuid);
+            if (emprestados.size() >= vagas) {
+                if (livro != null) {
+                    excedentes.add(livro.getId());
+                }
+                falhas.put(uuid, "Cliente atingiu o limite de empréstimos ativos");
+            } else if (livro == null) {
+                falhas.put(uuid, "Livro não disponível para empréstimo");
+            } else {
+                emprestados.put(uuid, new Emprestimo(cliente, livro, funcionario));
+            }
+        }
+
+        // Devolver a disponibilidade dos reservados que ficaram sem vaga
+        if (!excedentes.isEmpty()) {
+            cacheSegundoNivelService.removerLivros(livroRepository.liberar(excedentes));
+        }
+
+        List<Emprestimo> novos = new ArrayList<>(emprestados.values());
+        try {
+            this.emprestimoRepository.saveAllAndFlush(novos);
+        } catch (DataIntegrityViolationException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Um dos livros do lote já está emprestado");
+        }
+
+        this.eventoEmprestimoRepository.saveAll(novos.stream()
+                .map(e -> new EventoEmprestimo(TipoEventoEmprestimo.EMPRESTIMO, e))
+                .toList());
+
+        // Os resultados são montados depois do flush, quando id e uuid dos empréstimos já existem
+        return pedidos.stream()
+                .map(uuid -> emprestados.containsKey(uuid)
+                        ? ItemEmprestimoLote.sucesso(uuid, emprestados.get(uuid))
+                        : ItemEmprestimoLote.falha(uuid, falhas.get(uuid)))
+                .toList();
     }
 
     @Transactional
@@ -79,27 +174,93 @@ public class EmprestimoService {
         livro.setDisponivel(true);
         livroRepository.save(livro);
 
-        return this.emprestimoRepository.save(emprestimo);
+        Emprestimo devolvido = this.emprestimoRepository.save(emprestimo);
+        this.eventoEmprestimoRepository.save(new EventoEmprestimo(TipoEventoEmprestimo.DEVOLUCAO, devolvido));
+        return devolvido;
     }
 
-    public List<Emprestimo> listarTodos() {
-        return this.emprestimoRepository.findAll();
+    @Transactional
+    public ResultadoDevolucaoLote registrarDevolucaoEmLote(List<Long> emprestimoIds, Long funcionarioId) {
+        funcionarioRepository.findByIdAndAtivoTrue(funcionarioId)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.BAD_REQUEST, "Funcionário não está ativo"));
+
+        Set<Long> ids = new LinkedHashSet<>(emprestimoIds);
+
+        // Um UPDATE fecha todos os empréstimos abertos e informa quais livros devem ser liberados
+        LocalDateTime agora = LocalDateTime.now();
+        List<Long> devolvidos = new ArrayList<>();
+        List<Long> livrosDevolvidos = new ArrayList<>();
+        for (Object[] linha : emprestimoRepository.fecharEmprestimosAbertos(ids, funcionarioId, agora)) {
+            devolvidos.add(((Number) linha[0]).longValue());
+            livrosDevolvidos.add(((Number) linha[1]).longValue());
+        }
+
+        if (!devolvidos.isEmpty()) {
+            cacheSegundoNivelService.removerLivros(livroRepository.liberar(livrosDevolvidos));
+            eventoEmprestimoRepository.registrarDevolucoes(devolvidos, agora);
+        }
+
+        // Os que não foram fechados já estavam devolvidos ou não existem
+        Set<Long> fechados = new HashSet<>(devolvidos);
+        List<Long> pendentes = ids.stream().filter(id -> !fechados.contains(id)).toList();
+        Set<Long> existentes = pendentes.isEmpty()
+                ? Set.of()
+                : new HashSet<>(emprestimoRepository.findIdsExistentes(pendentes));
+
+        List<Long> jaDevolvidos = pendentes.stream().filter(existentes::contains).toList();
+        List<Long> naoEncontrados = pendentes.stream().filter(id -> !existentes.contains(id)).toList();
+
+        return new ResultadoDevolucaoLote(devolvidos, jaDevolvidos, naoEncontrados);
+    }
+
+    public List<EmprestimoResumo> listarTodos() {
+        return this.emprestimoRepository.findAllResumos();
+    }
+
+    public List<EmprestimoResumo> listarEmprestimosAtivos() {
+        return this.emprestimoRepository.findResumosAtivos();
     }
 
-    public List<Emprestimo> listarEmprestimosAtivos() {
-        return this.emprestimoRepository.findByDataDevolucaoIsNull();
+    public Page<EmprestimoResumo> listarEmprestimosAtrasados(Pageable pageable) {
+        return this.emprestimoRepository.findEmprestimosAtrasados(pageable);
     }
 
-    public List<Emprestimo> listarEmprestimosAtrasados() {
-        return this.emprestimoRepository.findEmprestimosAtrasados();
+    public PaginaEmprestimos listarHistoricoCliente(Long clienteId, String cursor, int tamanho) {
+        int limite = limitarTamanhoPagina(tamanho);
+        List<EmprestimoResumo> itens;
+        if (cursor == null) {
+            itens = this.emprestimoRepository.findHistoricoCliente(clienteId, PageRequest.of(0, limite));
+        } else {
+            CursorEmprestimo posicao = decodificarCursor(cursor);
+            itens = this.emprestimoRepository.findHistoricoClienteApos(
+                    clienteId, posicao.dataEmprestimo(), posicao.id(), PageRequest.of(0, limite));
+        }
+        return PaginaEmprestimos.de(itens, limite);
     }
 
-    public List<Emprestimo> listarHistoricoCliente(Long clienteId) {
-        return this.emprestimoRepository.findByClienteId(clienteId);
+    public PaginaEmprestimos listarPorFuncionario(Long funcionarioId, String cursor, int tamanho) {
+        int limite = limitarTamanhoPagina(tamanho);
+        List<EmprestimoResumo> itens;
+        if (cursor == null) {
+            itens = this.emprestimoRepository.findHistoricoFuncionario(funcionarioId, PageRequest.of(0, limite));
+        } else {
+            CursorEmprestimo posicao = decodificarCursor(cursor);
+            itens = this.emprestimoRepository.findHistoricoFuncionarioApos(
+                    funcionarioId, posicao.dataEmprestimo(), posicao.id(), PageRequest.of(0, limite));
+        }
+        return PaginaEmprestimos.de(itens, limite);
     }
 
-    public List<Emprestimo> listarPorFuncionario(Long funcionarioId) {
-        return this.emprestimoRepository.findByFuncionarioId(funcionarioId);
+    private int limitarTamanhoPagina(int tamanho) {
+        return Math.max(1, Math.min(tamanho, TAMANHO_MAXIMO_PAGINA));
+    }
+
+    private CursorEmprestimo decodificarCursor(String cursor) {
+        try {
+            return CursorEmprestimo.decodificar(cursor);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Cursor de paginação inválido");
+        }
     }
 
     public Emprestimo buscarPorId(Long id) {
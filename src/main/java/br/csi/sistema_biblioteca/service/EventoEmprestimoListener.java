@@ -0,0 +1,11 @@
+package br.csi.sistema_biblioteca.service;
+
+import br.csi.sistema_biblioteca.model.emprestimo.EventoEmprestimo;
+
+// Implementações registradas como beans recebem, em ordem, os eventos de empréstimo e devolução
+// já confirmados no banco. A entrega é "pelo menos uma vez": um evento pode ser repetido se
+// algum listener falhar, então o processamento deve tolerar duplicatas.
+public interface EventoEmprestimoListener {
+
+    void aoReceber(EventoEmprestimo evento);
+}
@@ -0,0 +1,71 @@
+package br.csi.sistema_biblioteca.service;
+
+import br.csi.sistema_biblioteca.model.emprestimo.EventoEmprestimo;
+import br.csi.sistema_biblioteca.model.emprestimo.EventoEmprestimoRepository;
+import jakarta.transaction.Transactional;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class EventoEmprestimoRelay {
+
+    private final EventoEmprestimoRepository eventoEmprestimoRepository;
+    private final ObjectProvider<EventoEmprestimoListener> listeners;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${biblioteca.eventos.tamanho-lote:100}")
+    private int tamanhoLote;
+
+    @Value("${biblioteca.eventos.retencao-dias:7}")
+    private int retencaoDias;
+
+    // Entrega até um lote de eventos pendentes em ordem, cada um na sua própria transação curta:
+    // trava o próximo evento, chama todos os listeners e marca como processado antes do commit.
+    // Assim a falha de um listener (inclusive via proxy transacional que marque rollback-only)
+    // desfaz só o evento atual; os já entregues continuam marcados e ele é tentado de novo depois.
+    @Scheduled(fixedDelayString = "${biblioteca.eventos.intervalo-ms:1000}")
+    public void despachar() {
+        List<EventoEmprestimoListener> destinatarios = listeners.orderedStream().toList();
+
+        for (int i = 0; i < tamanhoLote; i++) {
+            try {
+                Boolean entregue = transactionTemplate.execute(status -> entregarProximo(destinatarios));
+                if (!Boolean.TRUE.equals(entregue)) {
+                    return;
+                }
+            } catch (RuntimeException e) {
+                log.warn("Falha ao despachar evento pendente; nova tentativa na próxima execução", e);
+                return;
+            }
+        }
+    }
+
+    private boolean entregarProximo(List<EventoEmprestimoListener> destinatarios) {
+        EventoEmprestimo evento = eventoEmprestimoRepository.findProximoPendenteParaDespacho().orElse(null);
+        if (evento == null) {
+            return false;
+        }
+        log.debug("Despachando evento {} ({})", evento.getId(), evento.getTipo());
+        for (EventoEmprestimoListener listener : destinatarios) {
+            listener.aoReceber(evento);
+        }
+        evento.setProcessadoEm(LocalDateTime.now());
+        return true;
+    }
+
+    @Scheduled(cron = "${biblioteca.eventos.limpeza-cron:0 0 3 * * *}")
+    @Transactional
+    public void limparProcessados() {
+        eventoEmprestimoRepository.excluirProcessadosAntesDe(LocalDateTime.now().minusDays(retencaoDias));
+    }
+}
@@ -0,0 +1,160 @@
+package br.csi.sistema_biblioteca.service;
+
+import br.csi.sistema_biblioteca.model.emprestimo.EmprestimoRepository;
+import br.csi.sistema_biblioteca.model.emprestimo.EmprestimoResumo;
+import br.csi.sistema_biblioteca.model.livro_categoria.Categoria;
+import br.csi.sistema_biblioteca.model.livro_categoria.Livro;
+import br.csi.sistema_biblioteca.model.livro_categoria.LivroDTO;
+import br.csi.sistema_biblioteca.model.livro_categoria.LivroRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import jakarta.persistence.EntityManager;
+import jakarta.transaction.Transactional;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+// Exportações completas escritas linha a linha na resposta: cada registro é lido do cursor,
+// serializado e descartado, então a memória usada não depende do tamanho da tabela
+@Service
+public class ExportacaoService {
+
+    // Envia o que já foi escrito para o cliente a cada bloco, mesmo sem encher o buffer
+    private static final int LINHAS_POR_ENVIO = 1000;
+
+    private final LivroRepository livroRepository;
+    private final EmprestimoRepository emprestimoRepository;
+    private final EntityManager entityManager;
+
+    // Writers imutáveis montados uma vez: cada linha reaproveita o serializador já resolvido
+    private final ObjectWriter jsonLivro;
+    private final ObjectWriter jsonEmprestimo;
+
+    public ExportacaoService(LivroRepository livroRepository,
+                             EmprestimoRepository emprestimoRepository,
+                             EntityManager entityManager,
+                             ObjectMapper objectMapper) {
+        this.livroRepository = livroRepository;
+        this.emprestimoRepository = emprestimoRepository;
+        this.entityManager = entityManager;
+        this.jsonLivro = objectMapper.writerFor(LivroDTO.class);
+        this.jsonEmprestimo = objectMapper.writerFor(EmprestimoResumo.class);
+    }
+
+    public enum Formato {
+        CSV(new MediaType("text", "csv", StandardCharsets.UTF_8)),
+        NDJSON(MediaType.APPLICATION_NDJSON);
+
+        private final MediaType tipoConteudo;
+
+        Formato(MediaType tipoConteudo) {
+            this.tipoConteudo = tipoConteudo;
+        }
+
+        public MediaType tipoConteudo() {
+            return tipoConteudo;
+        }
+
+        public String extensao() {
+            return name().toLowerCase(Locale.ROOT);
+        }
+
+        public static Formato de(String valor) {
+            try {
+                return valueOf(valor.toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Formato deve ser 'csv' ou 'ndjson'");
+            }
+        }
+    }
+
+    // Roda fora da thread da requisição (StreamingResponseBody), então abre a própria transação,
+    // que mantém a conexão e o cursor abertos enquanto o stream é percorrido
+    @Transactional
+    public void exportarLivros(Formato formato, OutputStream saida) throws IOException {
+        Writer escritor = new BufferedWriter(new OutputStreamWriter(saida, StandardCharsets.UTF_8));
+        if (formato == Formato.CSV) {
+            escritor.write("id,uuid,titulo,autor,anoPublicacao,disponivel,categorias\n");
+        }
+
+        try (Stream<Livro> livros = livroRepository.streamTodosComCategorias()) {
+            long escritos = 0;
+            for (Iterator<Livro> it = livros.iterator(); it.hasNext(); ) {
+                Livro livro = it.next();
+                if (formato == Formato.NDJSON) {
+                    escritor.write(jsonLivro.writeValueAsString(LivroDTO.de(livro)));
+                } else {
+                    escritor.write(linhaCsv(livro.getId(), livro.getUuid(), livro.getTitulo(), livro.getAutor(),
+                            livro.getAnoPublicacao(), livro.getDisponivel(),
+                            livro.getCategorias().stream().map(Categoria::getNome).sorted().collect(Collectors.joining("|"))));
+                }
+                escritor.write('\n');
+                // Sem isso o contexto de persistência guardaria todos os livros já exportados
+                entityManager.detach(livro);
+                if (++escritos % LINHAS_POR_ENVIO == 0) {
+                    escritor.flush();
+                }
+            }
+        }
+        escritor.flush();
+    }
+
+    @Transactional
+    public void exportarEmprestimos(Formato formato, OutputStream saida) throws IOException {
+        Writer escritor = new BufferedWriter(new OutputStreamWriter(saida, StandardCharsets.UTF_8));
+        if (formato == Formato.CSV) {
+            escritor.write("id,uuid,dataEmprestimo,dataDevolucaoPrevista,dataDevolucao,atrasado," +
+                    "clienteId,clienteNome,livroId,livroUuid,livroTitulo,funcionarioId,funcionarioNome\n");
+        }
+
+        // Resumos são DTOs, não entidades: não entram no contexto de persistência
+        try (Stream<EmprestimoResumo> emprestimos = emprestimoRepository.streamResumos()) {
+            long escritos = 0;
+            for (Iterator<EmprestimoResumo> it = emprestimos.iterator(); it.hasNext(); ) {
+                EmprestimoResumo e = it.next();
+                if (formato == Formato.NDJSON) {
+                    escritor.write(jsonEmprestimo.writeValueAsString(e));
+                } else {
+                    escritor.write(linhaCsv(e.id(), e.uuid(), e.dataEmprestimo(), e.dataDevolucaoPrevista(),
+                            e.dataDevolucao(), e.atrasado(), e.clienteId(), e.clienteNome(), e.livroId(),
+                            e.livroUuid(), e.livroTitulo(), e.funcionarioId(), e.funcionarioNome()));
+                }
+                escritor.write('\n');
+                if (++escritos % LINHAS_POR_ENVIO == 0) {
+                    escritor.flush();
+                }
+            }
+        }
+        escritor.flush();
+    }
+
+    // Nulos viram campo vazio; textos com vírgula, aspas ou quebra de linha vão entre aspas
+    private static String linhaCsv(Object... valores) {
+        StringBuilder linha = new StringBuilder();
+        for (int i = 0; i < valores.length; i++) {
+            if (i > 0) {
+                linha.append(',');
+            }
+            String valor = Objects.toString(valores[i], "");
+            if (valor.indexOf(',') >= 0 || valor.indexOf('"') >= 0 || valor.indexOf('\n') >= 0 || valor.indexOf('\r') >= 0) {
+                linha.append('"').append(valor.replace("\"", "\"\"")).append('"');
+            } else {
+                linha.append(valor);
+            }
+        }
+        return linha.toString();
+    }
+}
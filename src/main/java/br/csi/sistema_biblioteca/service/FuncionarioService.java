@@ -18,6 +18,7 @@ public class FuncionarioService {
 
     private final FuncionarioRepository funcionarioRepository;
     private final PasswordEncoder passwordEncoder; // 🔐 Adicionado PasswordEncoder
+    private final ResolvedorUuid resolvedorUuid;
 
     public Funcionario salvar(Funcionario funcionario) {
         Optional<Funcionario> funcionarioExistente = funcionarioRepository.findByEmail(funcionario.getEmail());
@@ -28,7 +29,9 @@ public class FuncionarioService {
         // 🔐 CODIFICAR SENHA ANTES DE SALVAR
         funcionario.setSenha(passwordEncoder.encode(funcionario.getSenha()));
 
-        return this.funcionarioRepository.save(funcionario);
+        Funcionario salvo = this.funcionarioRepository.save(funcionario);
+        this.resolvedorUuid.registrar(ResolvedorUuid.Tipo.FUNCIONARIO, salvo.getUuid(), salvo.getId());
+        return salvo;
     }
 
     public List<Funcionario> listarTodos() {
@@ -45,18 +48,23 @@ public class FuncionarioService {
     }
 
     public Funcionario buscarPorUuid(UUID uuid) {
-        return this.funcionarioRepository.findByUuid(uuid)
+        return buscarPorId(idPorUuid(uuid));
+    }
+
+    // As rotas /uuid/ resolvem o ID em memória e seguem pela chave primária
+    private Long idPorUuid(UUID uuid) {
+        return this.resolvedorUuid.resolver(ResolvedorUuid.Tipo.FUNCIONARIO, uuid)
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Funcionário não encontrado"));
     }
 
     public void excluir(Long id) {
         Funcionario funcionario = buscarPorId(id);
         this.funcionarioRepository.delete(funcionario);
+        this.resolvedorUuid.remover(ResolvedorUuid.Tipo.FUNCIONARIO, funcionario.getUuid());
     }
 
     public void excluirPorUuid(UUID uuid) {
-        Funcionario funcionario = buscarPorUuid(uuid);
-        this.funcionarioRepository.delete(funcionario);
+        excluir(idPorUuid(uuid));
     }
 
     public Funcionario atualizar(Long id, Funcionario funcionario) {
@@ -83,26 +91,7 @@ public class FuncionarioService {
     }
 
     public Funcionario atualizarPorUuid(Funcionario funcionario) {
-        Funcionario f = this.funcionarioRepository.findByUuid(funcionario.getUuid())
-                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Funcionário não encontrado"));
-
-        // Verificar se email já existe em outro funcionário
-        Optional<Funcionario> funcionarioComEmail = funcionarioRepository.findByEmail(funcionario.getEmail());
-        if (funcionarioComEmail.isPresent() && !funcionarioComEmail.get().getUuid().equals(funcionario.getUuid())) {
-            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Email já cadastrado em outro funcionário");
-        }
-
-        f.setNome(funcionario.getNome());
-        f.setEmail(funcionario.getEmail());
-
-        // 🔐 ATUALIZAR SENHA APENAS SE FOR FORNECIDA (E CODIFICAR)
-        if (funcionario.getSenha() != null && !funcionario.getSenha().isEmpty()) {
-            f.setSenha(passwordEncoder.encode(funcionario.getSenha()));
-        }
-
-        f.setAtivo(funcionario.getAtivo());
-
-        return this.funcionarioRepository.save(f);
+        return atualizar(idPorUuid(funcionario.getUuid()), funcionario);
     }
 
     public void desativar(Long id) {
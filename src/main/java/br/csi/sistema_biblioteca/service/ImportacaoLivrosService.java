@@ -0,0 +1,74 @@
+package br.csi.sistema_biblioteca.service;
+
+import br.csi.sistema_biblioteca.model.livro_categoria.FormatoImportacao;
+import br.csi.sistema_biblioteca.model.livro_categoria.ImportacaoLivros;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Locale;
+import java.util.UUID;
+
+@Service
+public class ImportacaoLivrosService {
+
+    private final ImportadorLivros importadorLivros;
+
+    // Importações da execução atual da aplicação, para consulta do andamento. Ao terminar, a
+    // importação é gravada de novo, então o prazo de retenção conta a partir do fim dela; o
+    // tamanho máximo só limita a memória se muitas importações forem feitas dentro do prazo.
+    private final Cache<UUID, ImportacaoLivros> importacoes;
+
+    public ImportacaoLivrosService(ImportadorLivros importadorLivros,
+                                   @Value("${biblioteca.importacoes.retencao-horas:24}") long retencaoHoras,
+                                   @Value("${biblioteca.importacoes.tamanho-maximo:1000}") long tamanhoMaximo) {
+        this.importadorLivros = importadorLivros;
+        this.importacoes = Caffeine.newBuilder()
+                .expireAfterWrite(Duration.ofHours(retencaoHoras))
+                .maximumSize(tamanhoMaximo)
+                .build();
+    }
+
+    public ImportacaoLivros iniciar(MultipartFile arquivo, String formato) {
+        FormatoImportacao formatoImportacao;
+        try {
+            formatoImportacao = FormatoImportacao.valueOf(formato.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Formato deve ser 'csv' ou 'ndjson'");
+        }
+        if (arquivo.isEmpty()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Arquivo de importação está vazio");
+        }
+
+        // O upload é apagado ao fim da requisição, então a importação lê de uma cópia própria
+        Path copia;
+        try {
+            copia = Files.createTempFile("importacao-livros-", "." + formato.toLowerCase(Locale.ROOT));
+            arquivo.transferTo(copia);
+        } catch (IOException e) {
+            throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, "Não foi possível receber o arquivo de importação");
+        }
+
+        ImportacaoLivros importacao = new ImportacaoLivros(formatoImportacao);
+        importacoes.put(importacao.getId(), importacao);
+        importadorLivros.executar(importacao, copia)
+                .whenComplete((resultado, erro) -> importacoes.put(importacao.getId(), importacao));
+        return importacao;
+    }
+
+    public ImportacaoLivros buscar(UUID id) {
+        ImportacaoLivros importacao = importacoes.getIfPresent(id);
+        if (importacao == null) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Importação não encontrada");
+        }
+        return importacao;
+    }
+}
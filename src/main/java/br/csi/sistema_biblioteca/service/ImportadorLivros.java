@@ -0,0 +1,433 @@
+package br.csi.sistema_biblioteca.service;
+
+import br.csi.sistema_biblioteca.model.UuidV7;
+import br.csi.sistema_biblioteca.model.livro_categoria.CategoriaRepository;
+import br.csi.sistema_biblioteca.model.livro_categoria.FormatoImportacao;
+import br.csi.sistema_biblioteca.model.livro_categoria.ImportacaoLivros;
+import br.csi.sistema_biblioteca.model.livro_categoria.LinhaImportacao;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyIn;
+import org.postgresql.copy.CopyManager;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Service;
+
+import javax.sql.DataSource;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
+
+// Carga de livros em lote: as linhas válidas vão por COPY para uma tabela temporária e, a cada
+// lote, um único INSERT ... SELECT grava livro e livro_categoria. Evita um INSERT por livro
+// (IDENTITY impede o batch do Hibernate) e não passa pelo contexto de persistência.
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ImportadorLivros {
+
+    private static final int LINHAS_POR_LOTE = 10_000;
+    private static final int CARACTERES_POR_ENVIO = 64 * 1024;
+
+    // ON COMMIT DELETE ROWS esvazia a tabela a cada lote gravado
+    static final String CRIAR_TABELA_TEMPORARIA = """
+            CREATE TEMP TABLE IF NOT EXISTS importacao_livro (
+                linha BIGINT NOT NULL,
+                uuid UUID NOT NULL,
+                titulo VARCHAR(200) NOT NULL,
+                autor VARCHAR(100) NOT NULL,
+                ano_publicacao INTEGER,
+                categorias BIGINT[] NOT NULL
+            ) ON COMMIT DELETE ROWS
+            """;
+
+    private static final String COPIAR = """
+            COPY importacao_livro (linha, uuid, titulo, autor, ano_publicacao, categorias)
+            FROM STDIN WITH (FORMAT csv)
+            """;
+
+    // UUIDs já cadastrados são ignorados; se o mesmo UUID se repete no arquivo, vale a primeira linha
+    static final String GRAVAR_LOTE = """
+            WITH primeiras AS (
+                SELECT DISTINCT ON (uuid) uuid, titulo, autor, ano_publicacao, categorias
+                FROM importacao_livro
+                ORDER BY uuid, linha
+            ), inseridos AS (
+                INSERT INTO livro (uuid, titulo, autor, ano_publicacao, disponivel)
+                SELECT uuid, titulo, autor, ano_publicacao, true FROM primeiras
+                ON CONFLICT (uuid) DO NOTHING
+                RETURNING id_livro, uuid
+            ), categorias AS (
+                INSERT INTO livro_categoria (id_livro, id_categoria)
+                SELECT DISTINCT i.id_livro, c.id_categoria
+                FROM inseridos i
+                JOIN primeiras p ON p.uuid = i.uuid
+                CROSS JOIN LATERAL unnest(p.categorias) AS c(id_categoria)
+                RETURNING 1
+            )
+            SELECT (SELECT COUNT(*) FROM inseridos), (SELECT COUNT(*) FROM categorias)
+            """;
+
+    private final DataSource dataSource;
+    private final CategoriaRepository categoriaRepository;
+    private final ObjectMapper objectMapper;
+    private final IndiceCatalogo indiceCatalogo;
+    private final IndiceDisponibilidade indiceDisponibilidade;
+
+    // O future completa depois do fim da importação (concluída ou com falha)
+    @Async
+    public CompletableFuture<Void> executar(ImportacaoLivros importacao, Path arquivo) {
+        try (BufferedReader leitor = Files.newBufferedReader(arquivo, StandardCharsets.UTF_8);
+             Connection conexao = dataSource.getConnection()) {
+            Carga carga = new Carga(conexao, importacao, categoriasPorNome());
+            try {
+                if (importacao.getFormato() == FormatoImportacao.CSV) {
+                    lerCsv(leitor, carga);
+                } else {
+                    lerNdjson(leitor, carga);
+                }
+                carga.gravarLote();
+            } finally {
+                carga.encerrar();
+            }
+            importacao.concluir();
+        } catch (Exception e) {
+            log.error("Importação de livros {} interrompida", importacao.getId(), e);
+            importacao.falhar(e.getMessage());
+        } finally {
+            apagar(arquivo);
+            // Os lotes já gravados continuam no banco mesmo se a importação falhar depois. Cadastros,
+            // exclusões e empréstimos que chegarem durante a reconstrução são reaplicados pelos índices.
+            if (importacao.totalInserido() > 0) {
+                indiceCatalogo.reconstruir();
+                indiceDisponibilidade.reconstruir();
+            }
+        }
+        return CompletableFuture.completedFuture(null);
+    }
+
+    private Map<String, Long> categoriasPorNome() {
+        return categoriaRepository.findAll().stream()
+                .collect(Collectors.toMap(c -> chaveCategoria(c.getNome()), c -> c.getId(), (a, b) -> a));
+    }
+
+    private void lerNdjson(BufferedReader leitor, Carga carga) throws IOException, SQLException {
+        ObjectReader json = objectMapper.readerFor(LinhaImportacao.class);
+        String texto;
+        long numero = 0;
+        while ((texto = leitor.readLine()) != null) {
+            numero++;
+            if (texto.isBlank()) {
+                continue;
+            }
+            try {
+                LinhaImportacao linha = json.readValue(texto);
+                if (linha == null) {
+                    // A linha "null" é JSON válido, mas não descreve um livro
+                    carga.rejeitar(numero, "A linha deve conter um objeto JSON");
+                } else {
+                    carga.adicionar(numero, linha);
+                }
+            } catch (JsonProcessingException e) {
+                carga.rejeitar(numero, "JSON inválido: " + e.getOriginalMessage());
+            }
+        }
+    }
+
+    // Cabeçalho obrigatório com as colunas titulo, autor, anoPublicacao, categorias e uuid
+    // (as três últimas opcionais, em qualquer ordem); várias categorias são separadas por "|"
+    private void lerCsv(BufferedReader leitor, Carga carga) throws IOException, SQLException {
+        LeitorCsv csv = new LeitorCsv(leitor);
+        List<String> cabecalho = csv.proximo();
+        if (cabecalho == null) {
+            return;
+        }
+        Map<String, Integer> colunas = new HashMap<>();
+        for (int i = 0; i < cabecalho.size(); i++) {
+            colunas.put(cabecalho.get(i).replace("\uFEFF", "").strip().toLowerCase(Locale.ROOT), i);
+        }
+        if (!colunas.containsKey("titulo") || !colunas.containsKey("autor")) {
+            throw new IllegalArgumentException("Cabeçalho do CSV deve conter as colunas titulo e autor");
+        }
+
+        List<String> campos;
+        while ((campos = csv.proximo()) != null) {
+            long numero = csv.linhaDoRegistro();
+            try {
+                String categorias = campo(campos, colunas, "categorias");
+                String ano = campo(campos, colunas, "anopublicacao");
+                String uuid = campo(campos, colunas, "uuid");
+                carga.adicionar(numero, new LinhaImportacao(
+                        campo(campos, colunas, "titulo"),
+                        campo(campos, colunas, "autor"),
+                        ano == null || ano.isBlank() ? null : Integer.valueOf(ano.strip()),
+                        categorias == null || categorias.isBlank() ? List.of() : Arrays.asList(categorias.split("\\|")),
+                        uuid == null || uuid.isBlank() ? null : UUID.fromString(uuid.strip())));
+            } catch (IllegalArgumentException e) {
+                // NumberFormatException também cai aqui
+                carga.rejeitar(numero, "Valor inválido: " + e.getMessage());
+            }
+        }
+    }
+
+    private static String campo(List<String> campos, Map<String, Integer> colunas, String nome) {
+        Integer indice = colunas.get(nome);
+        return indice == null || indice >= campos.size() ? null : campos.get(indice);
+    }
+
+    private static String chaveCategoria(String nome) {
+        return nome.strip().toLowerCase(Locale.ROOT);
+    }
+
+    private static void apagar(Path arquivo) {
+        try {
+            Files.deleteIfExists(arquivo);
+        } catch (IOException e) {
+            log.warn("Não foi possível apagar o arquivo temporário {}", arquivo, e);
+        }
+    }
+
+    // Estado de uma execução: a conexão, o COPY aberto e as linhas do lote atual
+    private static final class Carga {
+
+        private final Connection conexao;
+        private final ImportacaoLivros importacao;
+        private final Map<String, Long> categorias;
+        private final CopyManager copyManager;
+        private final boolean autoCommitOriginal;
+        private final StringBuilder buffer = new StringBuilder(CARACTERES_POR_ENVIO + 1024);
+        private CopyIn copia;
+        private int linhasNoLote;
+
+        Carga(Connection conexao, ImportacaoLivros importacao, Map<String, Long> categorias) throws SQLException {
+            this.conexao = conexao;
+            this.importacao = importacao;
+            this.categorias = categorias;
+            this.copyManager = conexao.unwrap(PGConnection.class).getCopyAPI();
+            this.autoCommitOriginal = conexao.getAutoCommit();
+            conexao.setAutoCommit(false);
+            try (Statement st = conexao.createStatement()) {
+                st.execute(CRIAR_TABELA_TEMPORARIA);
+            }
+            conexao.commit();
+        }
+
+        void rejeitar(long numero, String mensagem) {
+            importacao.linhaLida();
+            importacao.rejeitar(numero, mensagem);
+        }
+
+        void adicionar(long numero, LinhaImportacao linha) throws SQLException {
+            importacao.linhaLida();
+            String erro = validar(linha);
+            if (erro != null) {
+                importacao.rejeitar(numero, erro);
+                return;
+            }
+
+            List<Long> idsCategorias = new ArrayList<>();
+            for (String nome : linha.categorias() == null ? List.<String>of() : linha.categorias()) {
+                if (nome == null || nome.isBlank()) {
+                    continue;
+                }
+                Long id = categorias.get(chaveCategoria(nome));
+                if (id == null) {
+                    importacao.rejeitar(numero, "Categoria não encontrada: " + nome.strip());
+                    return;
+                }
+                idsCategorias.add(id);
+            }
+
+            if (copia == null) {
+                copia = copyManager.copyIn(COPIAR);
+            }
+            buffer.append(numero).append(',')
+                    .append(linha.uuid() != null ? linha.uuid() : UuidV7.gerar()).append(',');
+            aspas(linha.titulo().strip()).append(',');
+            aspas(linha.autor().strip()).append(',');
+            if (linha.anoPublicacao() != null) {
+                buffer.append(linha.anoPublicacao());
+            }
+            buffer.append(',');
+            aspas(idsCategorias.stream().map(String::valueOf).collect(Collectors.joining(",", "{", "}"))).append('\n');
+            importacao.linhaValida();
+
+            if (buffer.length() >= CARACTERES_POR_ENVIO) {
+                enviar();
+            }
+            if (++linhasNoLote == LINHAS_POR_LOTE) {
+                gravarLote();
+            }
+        }
+
+        void gravarLote() throws SQLException {
+            if (copia == null) {
+                return;
+            }
+            enviar();
+            copia.endCopy();
+            copia = null;
+
+            long inseridos;
+            try (Statement st = conexao.createStatement(); ResultSet rs = st.executeQuery(GRAVAR_LOTE)) {
+                rs.next();
+                inseridos = rs.getLong(1);
+            }
+            conexao.commit();
+            importacao.loteGravado(linhasNoLote, inseridos);
+            linhasNoLote = 0;
+        }
+
+        // Desfaz o lote incompleto em caso de erro e devolve a conexão ao pool como estava
+        void encerrar() throws SQLException {
+            try {
+                if (copia != null && copia.isActive()) {
+                    copia.cancelCopy();
+                }
+                conexao.rollback();
+                try (Statement st = conexao.createStatement()) {
+                    st.execute("DROP TABLE IF EXISTS importacao_livro");
+                }
+                conexao.commit();
+            } finally {
+                conexao.setAutoCommit(autoCommitOriginal);
+            }
+        }
+
+        private void enviar() throws SQLException {
+            if (buffer.isEmpty()) {
+                return;
+            }
+            byte[] bytes = buffer.toString().getBytes(StandardCharsets.UTF_8);
+            copia.writeToCopy(bytes, 0, bytes.length);
+            buffer.setLength(0);
+        }
+
+        private StringBuilder aspas(String valor) {
+            return buffer.append('"').append(valor.replace("\"", "\"\"")).append('"');
+        }
+
+        // Mesmas regras das anotações de validação de Livro
+        private static String validar(LinhaImportacao linha) {
+            if (linha.titulo() == null || linha.titulo().isBlank()) {
+                return "Título é obrigatório";
+            }
+            if (linha.titulo().strip().length() > 200) {
+                return "Título deve ter no máximo 200 caracteres";
+            }
+            if (linha.autor() == null || linha.autor().isBlank()) {
+                return "Autor é obrigatório";
+            }
+            if (linha.autor().strip().length() > 100) {
+                return "Nome do autor deve ter no máximo 100 caracteres";
+            }
+            return null;
+        }
+    }
+
+    // Leitor de CSV (RFC 4180) que entrega um registro por vez; campos entre aspas podem
+    // conter vírgulas, aspas duplicadas e quebras de linha. CRLF e CR sozinho viram "\n".
+    static final class LeitorCsv {
+
+        private final Reader leitor;
+        private long linhaAtual = 1;
+        private long linhaDoRegistro;
+        private int proximoCaractere = -2;
+
+        LeitorCsv(Reader leitor) {
+            this.leitor = leitor;
+        }
+
+        long linhaDoRegistro() {
+            return linhaDoRegistro;
+        }
+
+        List<String> proximo() throws IOException {
+            int c = ler();
+            while (c == '\n') {
+                c = ler();
+            }
+            if (c == -1) {
+                return null;
+            }
+
+            linhaDoRegistro = linhaAtual;
+            List<String> campos = new ArrayList<>();
+            StringBuilder campo = new StringBuilder();
+            boolean entreAspas = false;
+            while (true) {
+                if (entreAspas) {
+                    if (c == -1) {
+                        throw new IOException("Aspas não fechadas no registro da linha " + linhaDoRegistro);
+                    }
+                    if (c == '"') {
+                        int seguinte = ler();
+                        if (seguinte == '"') {
+                            campo.append('"');
+                        } else {
+                            entreAspas = false;
+                            c = seguinte;
+                            continue;
+                        }
+                    } else {
+                        campo.append((char) c);
+                    }
+                } else if (c == '"' && campo.isEmpty()) {
+                    entreAspas = true;
+                } else if (c == ',') {
+                    campos.add(campo.toString());
+                    campo.setLength(0);
+                } else if (c == '\n' || c == -1) {
+                    campos.add(campo.toString());
+                    return campos;
+                } else {
+                    campo.append((char) c);
+                }
+                c = ler();
+            }
+        }
+
+        private int ler() throws IOException {
+            int c = lerCaractere();
+            if (c == '\r') {
+                int seguinte = lerCaractere();
+                if (seguinte != '\n') {
+                    proximoCaractere = seguinte;
+                }
+                c = '\n';
+            }
+            if (c == '\n') {
+                linhaAtual++;
+            }
+            return c;
+        }
+
+        private int lerCaractere() throws IOException {
+            if (proximoCaractere != -2) {
+                int c = proximoCaractere;
+                proximoCaractere = -2;
+                return c;
+            }
+            return leitor.read();
+        }
+    }
+}
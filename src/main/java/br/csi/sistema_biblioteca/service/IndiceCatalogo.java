@@ -0,0 +1,329 @@
+package br.csi.sistema_biblioteca.service;
+
+import br.csi.sistema_biblioteca.model.livro_categoria.Categoria;
+import br.csi.sistema_biblioteca.model.livro_categoria.Livro;
+import br.csi.sistema_biblioteca.model.livro_categoria.LivroRepository;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+// Índice invertido em memória sobre título, autor e categorias dos livros, usado pela busca
+// dos quiosques sem consultar o banco. Cada termo (sem acento e em minúsculas) aponta para um
+// vetor ordenado de IDs de livro; buscas com vários termos intersectam esses vetores.
+@Service
+@RequiredArgsConstructor
+public class IndiceCatalogo {
+
+    private static final Pattern SEPARADOR = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final Pattern ACENTOS = Pattern.compile("\\p{M}+");
+
+    // Palavras presentes em boa parte dos títulos: não ajudam a filtrar e teriam as maiores listas
+    private static final Set<String> PALAVRAS_IGNORADAS = Set.of(
+            "a", "o", "as", "os", "de", "da", "do", "das", "dos", "e", "em", "no", "na", "um", "uma");
+
+    // Como no /autocompletar: prefixos curtos casariam com boa parte dos termos e a união das
+    // listas seria quase o catálogo inteiro; abaixo disso o último termo é buscado exatamente
+    static final int TAMANHO_MINIMO_PREFIXO = 3;
+
+    private static final int[] VAZIO = new int[0];
+
+    private final LivroRepository livroRepository;
+
+    private final ReentrantReadWriteLock trava = new ReentrantReadWriteLock();
+    private TreeMap<String, int[]> postings = new TreeMap<>();
+    private Map<Integer, Documento> documentos = new HashMap<>();
+    // Alterações recebidas enquanto uma reconstrução lê o banco; são reaplicadas, em ordem,
+    // sobre o índice novo, que pode ter sido montado antes delas. Nulo fora da reconstrução.
+    private List<Runnable> alteracoesDuranteReconstrucao;
+
+    private record Documento(Long id, UUID uuid, String titulo, String autor, String[] termos) {
+    }
+
+    @Schema(description = "Livro encontrado pela busca do índice em memória")
+    public record ResultadoBusca(Long id, UUID uuid, String titulo, String autor) {
+    }
+
+    @Schema(description = "Tamanho do índice em memória")
+    public record Estatisticas(
+            @Schema(description = "Livros indexados") int livros,
+            @Schema(description = "Termos distintos") int termos,
+            @Schema(description = "Total de entradas nas listas de livros por termo") long entradas,
+            @Schema(description = "Memória estimada ocupada pelo índice, em bytes") long bytesEstimados,
+            @Schema(description = "Memória estimada para cada 100 mil livros, em bytes") long bytesPor100MilLivros
+    ) {
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void reconstruir() {
+        trava.writeLock().lock();
+        try {
+            alteracoesDuranteReconstrucao = new ArrayList<>();
+        } finally {
+            trava.writeLock().unlock();
+        }
+
+        try {
+            Map<Long, List<String>> categoriasPorLivro = new HashMap<>();
+            for (Object[] linha : livroRepository.findNomesCategoriasPorLivro()) {
+                categoriasPorLivro.computeIfAbsent((Long) linha[0], id -> new ArrayList<>()).add((String) linha[1]);
+            }
+
+            // Os livros chegam em ordem de ID, então cada lista de postings já é montada ordenada
+            Map<String, ListaIds> listas = new HashMap<>();
+            Map<Integer, Documento> novosDocumentos = new HashMap<>();
+            for (Object[] linha : livroRepository.findDadosParaIndice()) {
+                Long id = (Long) linha[0];
+                Documento documento = criarDocumento(id, (UUID) linha[1], (String) linha[2], (String) linha[3],
+                        categoriasPorLivro.getOrDefault(id, List.of()));
+                novosDocumentos.put(Math.toIntExact(id), documento);
+                for (String termo : documento.termos()) {
+                    listas.computeIfAbsent(termo, t -> new ListaIds()).adicionar(Math.toIntExact(id));
+                }
+            }
+
+            TreeMap<String, int[]> novosPostings = new TreeMap<>();
+            listas.forEach((termo, lista) -> novosPostings.put(termo, lista.compactar()));
+
+            trava.writeLock().lock();
+            try {
+                this.postings = novosPostings;
+                this.documentos = novosDocumentos;
+                alteracoesDuranteReconstrucao.forEach(Runnable::run);
+            } finally {
+                trava.writeLock().unlock();
+            }
+        } finally {
+            // Roda também se a leitura falhar: para de acumular alterações e o índice atual continua valendo
+            trava.writeLock().lock();
+            try {
+                alteracoesDuranteReconstrucao = null;
+            } finally {
+                trava.writeLock().unlock();
+            }
+        }
+    }
+
+    public void indexar(Livro livro) {
+        List<String> categorias = livro.getCategorias().stream().map(Categoria::getNome).toList();
+        Documento documento = criarDocumento(livro.getId(), livro.getUuid(), livro.getTitulo(), livro.getAutor(), categorias);
+        int id = Math.toIntExact(livro.getId());
+
+        aplicar(() -> {
+            removerDocumento(id);
+            documentos.put(id, documento);
+            for (String termo : documento.termos()) {
+                postings.put(termo, inserir(postings.getOrDefault(termo, VAZIO), id));
+            }
+        });
+    }
+
+    public void remover(Long livroId) {
+        int id = Math.toIntExact(livroId);
+        aplicar(() -> removerDocumento(id));
+    }
+
+    // Todos os termos precisam estar presentes (AND); com prefixo = true o último termo, se tiver
+    // ao menos TAMANHO_MINIMO_PREFIXO caracteres, também casa com qualquer termo que comece por ele
+    public List<ResultadoBusca> buscar(String texto, boolean prefixo, int limite) {
+        List<String> termos = new ArrayList<>(tokenizar(texto));
+        if (termos.isEmpty()) {
+            return List.of();
+        }
+        String ultimo = prefixo && termos.get(termos.size() - 1).length() >= TAMANHO_MINIMO_PREFIXO
+                ? termos.remove(termos.size() - 1)
+                : null;
+
+        trava.readLock().lock();
+        try {
+            List<int[]> listas = new ArrayList<>();
+            for (String termo : termos) {
+                if (!PALAVRAS_IGNORADAS.contains(termo)) {
+                    listas.add(postings.getOrDefault(termo, VAZIO));
+                }
+            }
+            if (ultimo != null) {
+                listas.add(unir(postings.subMap(ultimo, true, ultimo + Character.MAX_VALUE, true).values()));
+            }
+            if (listas.isEmpty()) {
+                return List.of();
+            }
+
+            int[] ids = intersectar(listas);
+            List<ResultadoBusca> resultado = new ArrayList<>();
+            for (int i = 0; i < ids.length && resultado.size() < limite; i++) {
+                Documento d = documentos.get(ids[i]);
+                resultado.add(new ResultadoBusca(d.id(), d.uuid(), d.titulo(), d.autor()));
+            }
+            return resultado;
+        } finally {
+            trava.readLock().unlock();
+        }
+    }
+
+    // Estimativa com referências comprimidas (JVM 64 bits, heap < 32 GB) e strings Latin-1
+    public Estatisticas estatisticas() {
+        trava.readLock().lock();
+        try {
+            long entradas = 0;
+            long bytes = 0;
+            for (Map.Entry<String, int[]> e : postings.entrySet()) {
+                entradas += e.getValue().length;
+                bytes += 40                                   // nó da TreeMap
+                        + 24 + 16 + e.getKey().length()       // String do termo
+                        + 16 + 4L * e.getValue().length;      // int[] de IDs
+            }
+            for (Documento d : documentos.values()) {
+                bytes += 32 + 16                              // nó da HashMap + Integer
+                        + 32                                  // Documento
+                        + 40                                  // UUID
+                        + 40 + tamanho(d.titulo())          // título
+                        + 40 + tamanho(d.autor())           // autor
+                        + 16 + 4L * d.termos().length;        // vetor de termos
+                for (String termo : d.termos()) {
+                    bytes += 24 + 16 + termo.length();
+                }
+            }
+            long por100Mil = documentos.isEmpty() ? 0 : bytes * 100_000 / documentos.size();
+            return new Estatisticas(documentos.size(), postings.size(), entradas, bytes, por100Mil);
+        } finally {
+            trava.readLock().unlock();
+        }
+    }
+
+    // A alteração usa os campos no momento em que roda, então a mesma instância serve para o
+    // índice atual e, se houver reconstrução em andamento, para o índice que vai substituí-lo
+    private void aplicar(Runnable alteracao) {
+        trava.writeLock().lock();
+        try {
+            alteracao.run();
+            if (alteracoesDuranteReconstrucao != null) {
+                alteracoesDuranteReconstrucao.add(alteracao);
+            }
+        } finally {
+            trava.writeLock().unlock();
+        }
+    }
+
+    private Documento criarDocumento(Long id, UUID uuid, String titulo, String autor, Collection<String> categorias) {
+        Set<String> termos = new LinkedHashSet<>();
+        termos.addAll(tokenizar(titulo));
+        termos.addAll(tokenizar(autor));
+        categorias.forEach(c -> termos.addAll(tokenizar(c)));
+        termos.removeAll(PALAVRAS_IGNORADAS);
+        return new Documento(id, uuid, titulo, autor, termos.toArray(String[]::new));
+    }
+
+    private void removerDocumento(int id) {
+        Documento anterior = documentos.remove(id);
+        if (anterior == null) {
+            return;
+        }
+        for (String termo : anterior.termos()) {
+            int[] restante = retirar(postings.getOrDefault(termo, VAZIO), id);
+            if (restante.length == 0) {
+                postings.remove(termo);
+            } else {
+                postings.put(termo, restante);
+            }
+        }
+    }
+
+    private static int tamanho(String texto) {
+        return texto == null ? 0 : texto.length();
+    }
+
+    static List<String> tokenizar(String texto) {
+        if (texto == null || texto.isBlank()) {
+            return List.of();
+        }
+        String semAcento = ACENTOS.matcher(Normalizer.normalize(texto, Normalizer.Form.NFD)).replaceAll("");
+        return Arrays.stream(SEPARADOR.split(semAcento.toLowerCase(Locale.ROOT)))
+                .filter(t -> !t.isEmpty())
+                .toList();
+    }
+
+    private static int[] inserir(int[] ids, int id) {
+        int pos = Arrays.binarySearch(ids, id);
+        if (pos >= 0) {
+            return ids;
+        }
+        int ponto = -pos - 1;
+        int[] novo = new int[ids.length + 1];
+        System.arraycopy(ids, 0, novo, 0, ponto);
+        novo[ponto] = id;
+        System.arraycopy(ids, ponto, novo, ponto + 1, ids.length - ponto);
+        return novo;
+    }
+
+    private static int[] retirar(int[] ids, int id) {
+        int pos = Arrays.binarySearch(ids, id);
+        if (pos < 0) {
+            return ids;
+        }
+        int[] novo = new int[ids.length - 1];
+        System.arraycopy(ids, 0, novo, 0, pos);
+        System.arraycopy(ids, pos + 1, novo, pos, ids.length - pos - 1);
+        return novo;
+    }
+
+    private static int[] unir(Collection<int[]> listas) {
+        if (listas.size() == 1) {
+            return listas.iterator().next();
+        }
+        int[] todos = listas.stream().flatMapToInt(Arrays::stream).sorted().distinct().toArray();
+        return todos.length == 0 ? VAZIO : todos;
+    }
+
+    // Intersecta começando pela menor lista, que limita o tamanho do resultado
+    static int[] intersectar(List<int[]> listas) {
+        listas.sort(Comparator.comparingInt(l -> l.length));
+        int[] resultado = listas.get(0);
+        for (int i = 1; i < listas.size() && resultado.length > 0; i++) {
+            int[] outra = listas.get(i);
+            int[] comum = new int[resultado.length];
+            int n = 0;
+            for (int id : resultado) {
+                if (Arrays.binarySearch(outra, id) >= 0) {
+                    comum[n++] = id;
+                }
+            }
+            resultado = Arrays.copyOf(comum, n);
+        }
+        return resultado;
+    }
+
+    // Vetor de inteiros que cresce sob demanda, usado apenas durante a reconstrução
+    private static final class ListaIds {
+        private int[] valores = new int[4];
+        private int tamanho;
+
+        void adicionar(int id) {
+            if (tamanho == valores.length) {
+                valores = Arrays.copyOf(valores, tamanho * 2);
+            }
+            valores[tamanho++] = id;
+        }
+
+        int[] compactar() {
+            return Arrays.copyOf(valores, tamanho);
+        }
+    }
+}
@@ -0,0 +1,220 @@
+package br.csi.sistema_biblioteca.service;
+
+import br.csi.sistema_biblioteca.model.emprestimo.EventoEmprestimo;
+import br.csi.sistema_biblioteca.model.livro_categoria.Categoria;
+import br.csi.sistema_biblioteca.model.livro_categoria.Livro;
+import br.csi.sistema_biblioteca.model.livro_categoria.LivroRepository;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.RequiredArgsConstructor;
+import org.roaringbitmap.PeekableIntIterator;
+import org.roaringbitmap.RoaringBitmap;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Collectors;
+
+// Bitmaps comprimidos (Roaring) com os IDs de todos os livros, dos disponíveis e dos livros de
+// cada categoria. "Disponíveis da categoria X" vira uma interseção de dois bitmaps em memória.
+// Empréstimos e devoluções chegam pelos eventos do outbox (com o atraso do relay, ~1 s);
+// cadastro, exclusão e mudança de categorias chegam pelo LivroService.
+@Service
+@RequiredArgsConstructor
+public class IndiceDisponibilidade implements EventoEmprestimoListener {
+
+    private final LivroRepository livroRepository;
+
+    private final ReentrantReadWriteLock trava = new ReentrantReadWriteLock();
+    private RoaringBitmap todos = new RoaringBitmap();
+    private RoaringBitmap disponiveis = new RoaringBitmap();
+    private Map<Long, RoaringBitmap> porCategoria = new HashMap<>();
+    // Alterações recebidas enquanto uma reconstrução lê o banco, reaplicadas em ordem sobre os
+    // bitmaps novos. Nulo fora da reconstrução.
+    private List<Runnable> alteracoesDuranteReconstrucao;
+
+    @Schema(description = "Tamanho do índice de disponibilidade em memória")
+    public record Estatisticas(
+            @Schema(description = "Livros indexados") int livros,
+            @Schema(description = "Livros disponíveis") int disponiveis,
+            @Schema(description = "Categorias com ao menos um livro") int categorias,
+            @Schema(description = "Memória ocupada pelos bitmaps, em bytes") long bytes
+    ) {
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void reconstruir() {
+        trava.writeLock().lock();
+        try {
+            alteracoesDuranteReconstrucao = new ArrayList<>();
+        } finally {
+            trava.writeLock().unlock();
+        }
+
+        try {
+            RoaringBitmap novosTodos = RoaringBitmap.bitmapOf(paraInts(livroRepository.findTodosIds()));
+            RoaringBitmap novosDisponiveis = RoaringBitmap.bitmapOf(paraInts(livroRepository.findIdsDisponiveis()));
+            Map<Long, RoaringBitmap> novosPorCategoria = new HashMap<>();
+            for (Object[] linha : livroRepository.findIdsCategoriaLivro()) {
+                novosPorCategoria.computeIfAbsent((Long) linha[0], id -> new RoaringBitmap())
+                        .add(Math.toIntExact((Long) linha[1]));
+            }
+            novosTodos.runOptimize();
+            novosDisponiveis.runOptimize();
+            novosPorCategoria.values().forEach(RoaringBitmap::runOptimize);
+
+            trava.writeLock().lock();
+            try {
+                this.todos = novosTodos;
+                this.disponiveis = novosDisponiveis;
+                this.porCategoria = novosPorCategoria;
+                alteracoesDuranteReconstrucao.forEach(Runnable::run);
+            } finally {
+                trava.writeLock().unlock();
+            }
+        } finally {
+            // Roda também se a leitura falhar: para de acumular alterações e o índice atual continua valendo
+            trava.writeLock().lock();
+            try {
+                alteracoesDuranteReconstrucao = null;
+            } finally {
+                trava.writeLock().unlock();
+            }
+        }
+    }
+
+    // Eventos repetidos apenas repetem o mesmo add/remove, então a entrega "pelo menos uma vez" é segura
+    @Override
+    public void aoReceber(EventoEmprestimo evento) {
+        int id = Math.toIntExact(evento.getLivroId());
+        aplicar(() -> {
+            switch (evento.getTipo()) {
+                case EMPRESTIMO -> disponiveis.remove(id);
+                case DEVOLUCAO -> {
+                    if (todos.contains(id)) {
+                        disponiveis.add(id);
+                    }
+                }
+            }
+        });
+    }
+
+    public void atualizar(Livro livro) {
+        int id = Math.toIntExact(livro.getId());
+        Set<Long> categorias = livro.getCategorias().stream().map(Categoria::getId).collect(Collectors.toSet());
+
+        boolean disponivel = Boolean.TRUE.equals(livro.getDisponivel());
+
+        aplicar(() -> {
+            todos.add(id);
+            if (disponivel) {
+                disponiveis.add(id);
+            } else {
+                disponiveis.remove(id);
+            }
+            porCategoria.forEach((categoriaId, bitmap) -> {
+                if (!categorias.contains(categoriaId)) {
+                    bitmap.remove(id);
+                }
+            });
+            for (Long categoriaId : categorias) {
+                porCategoria.computeIfAbsent(categoriaId, c -> new RoaringBitmap()).add(id);
+            }
+        });
+    }
+
+    public void remover(Long livroId) {
+        int id = Math.toIntExact(livroId);
+        aplicar(() -> {
+            todos.remove(id);
+            disponiveis.remove(id);
+            porCategoria.values().forEach(bitmap -> bitmap.remove(id));
+        });
+    }
+
+    // categoriaId e disponivel nulos não filtram
+    public long contar(Long categoriaId, Boolean disponivel) {
+        trava.readLock().lock();
+        try {
+            RoaringBitmap base = base(categoriaId);
+            if (disponivel == null) {
+                return base.getLongCardinality();
+            }
+            long emComum = RoaringBitmap.andCardinality(base, disponiveis);
+            return disponivel ? emComum : base.getLongCardinality() - emComum;
+        } finally {
+            trava.readLock().unlock();
+        }
+    }
+
+    // IDs em ordem crescente a partir da posição "inicio" do resultado
+    public List<Long> listarIds(Long categoriaId, Boolean disponivel, long inicio, int quantidade) {
+        trava.readLock().lock();
+        try {
+            RoaringBitmap resultado = filtrar(categoriaId, disponivel);
+            if (inicio >= resultado.getLongCardinality()) {
+                return List.of();
+            }
+
+            PeekableIntIterator iterador = resultado.getIntIterator();
+            iterador.advanceIfNeeded(resultado.select(Math.toIntExact(inicio)));
+            List<Long> ids = new ArrayList<>(quantidade);
+            while (iterador.hasNext() && ids.size() < quantidade) {
+                ids.add((long) iterador.next());
+            }
+            return ids;
+        } finally {
+            trava.readLock().unlock();
+        }
+    }
+
+    public Estatisticas estatisticas() {
+        trava.readLock().lock();
+        try {
+            long bytes = todos.getSizeInBytes() + disponiveis.getSizeInBytes();
+            for (RoaringBitmap bitmap : porCategoria.values()) {
+                bytes += bitmap.getSizeInBytes();
+            }
+            return new Estatisticas(todos.getCardinality(), disponiveis.getCardinality(), porCategoria.size(), bytes);
+        } finally {
+            trava.readLock().unlock();
+        }
+    }
+
+    // A alteração lê os campos quando roda, então serve tanto para os bitmaps atuais quanto
+    // para os que uma reconstrução em andamento vai instalar
+    private void aplicar(Runnable alteracao) {
+        trava.writeLock().lock();
+        try {
+            alteracao.run();
+            if (alteracoesDuranteReconstrucao != null) {
+                alteracoesDuranteReconstrucao.add(alteracao);
+            }
+        } finally {
+            trava.writeLock().unlock();
+        }
+    }
+
+    private RoaringBitmap base(Long categoriaId) {
+        return categoriaId == null ? todos : porCategoria.getOrDefault(categoriaId, new RoaringBitmap());
+    }
+
+    private RoaringBitmap filtrar(Long categoriaId, Boolean disponivel) {
+        RoaringBitmap base = base(categoriaId);
+        if (disponivel == null) {
+            return base;
+        }
+        return disponivel
+                ? RoaringBitmap.and(base, disponiveis)
+                : RoaringBitmap.andNot(base, disponiveis);
+    }
+
+    private static int[] paraInts(List<Long> ids) {
+        return ids.stream().mapToInt(Math::toIntExact).toArray();
+    }
+}
@@ -1,21 +1,36 @@
 package br.csi.sistema_biblioteca.service;
 
+import br.csi.sistema_biblioteca.model.VersaoRecurso;
 import br.csi.sistema_biblioteca.model.emprestimo.Emprestimo;
 import br.csi.sistema_biblioteca.model.emprestimo.EmprestimoRepository;
 import br.csi.sistema_biblioteca.model.livro_categoria.Categoria;
+import br.csi.sistema_biblioteca.model.livro_categoria.FiltroLivro;
 import br.csi.sistema_biblioteca.model.livro_categoria.Livro;
+import br.csi.sistema_biblioteca.model.livro_categoria.LivroDTO;
 import br.csi.sistema_biblioteca.model.livro_categoria.LivroRepository;
+import br.csi.sistema_biblioteca.model.livro_categoria.ResultadoPesquisaLivro;
+import br.csi.sistema_biblioteca.model.livro_categoria.SugestaoLivro;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.web.PagedModel;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.web.server.ResponseStatusException;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
 import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
@@ -24,17 +39,49 @@ public class LivroService {
     private final LivroRepository livroRepository;
     private final CategoriaService categoriaService;
     private final EmprestimoRepository emprestimoRepository;
+    private final IndiceCatalogo indiceCatalogo;
+    private final IndiceDisponibilidade indiceDisponibilidade;
+    private final ResolvedorUuid resolvedorUuid;
+
+    private static final int LIMITE_MAXIMO_SUGESTOES = 20;
 
     public Livro salvar(Livro livro) {
-        return this.livroRepository.save(livro);
+        Livro salvo = this.livroRepository.save(livro);
+        this.resolvedorUuid.registrar(ResolvedorUuid.Tipo.LIVRO, salvo.getUuid(), salvo.getId());
+        return indexar(salvo);
+    }
+
+    public List<LivroDTO> listarTodos() {
+        return paraDTO(this.livroRepository.findAll());
+    }
+
+    public List<LivroDTO> listarDisponiveis() {
+        return paraDTO(this.livroRepository.findByDisponivelTrue());
+    }
+
+    // O JSON dos livros traz as categorias, então a versão inclui também a tabela categoria
+    public VersaoRecurso[] versaoLivros() {
+        return new VersaoRecurso[]{this.livroRepository.versaoTodos(), this.categoriaService.versaoCategorias()};
+    }
+
+    public VersaoRecurso[] versaoDisponiveis() {
+        return new VersaoRecurso[]{this.livroRepository.versaoDisponiveis(), this.categoriaService.versaoCategorias()};
     }
 
-    public List<Livro> listarTodos() {
-        return this.livroRepository.findAll();
+    public VersaoRecurso[] versaoLivro(Long id) {
+        return new VersaoRecurso[]{existente(this.livroRepository.versaoPorId(id)), this.categoriaService.versaoCategorias()};
     }
 
-    public List<Livro> listarDisponiveis() {
-        return this.livroRepository.findByDisponivelTrue();
+    public VersaoRecurso[] versaoLivroPorUuid(UUID uuid) {
+        return versaoLivro(idPorUuid(uuid));
+    }
+
+    // Sem isso um livro inexistente teria um ETag válido e poderia responder 304
+    private static VersaoRecurso existente(VersaoRecurso versao) {
+        if (versao.getQuantidade() == 0) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Livro não encontrado");
+        }
+        return versao;
     }
 
     public Livro buscarPorId(Long id) {
@@ -43,15 +90,22 @@ public class LivroService {
     }
 
     public Livro buscarPorUuid(UUID uuid) {
-        return this.livroRepository.findByUuid(uuid)
-                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Livro não encontrado"));
+        return buscarPorId(idPorUuid(uuid));
     }
 
     public Livro buscarPorUuidDisponivel(UUID uuid) {
-        return this.livroRepository.findByUuidAndDisponivelTrue(uuid)
+        return this.resolvedorUuid.resolver(ResolvedorUuid.Tipo.LIVRO, uuid)
+                .flatMap(this.livroRepository::findById)
+                .filter(Livro::getDisponivel)
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Livro não encontrado ou indisponível"));
     }
 
+    // As rotas /uuid/ resolvem o ID em memória e seguem pela chave primária
+    private Long idPorUuid(UUID uuid) {
+        return this.resolvedorUuid.resolver(ResolvedorUuid.Tipo.LIVRO, uuid)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Livro não encontrado"));
+    }
+
     public void excluir(Long id) {
         Livro livro = buscarPorId(id);
 
@@ -61,17 +115,13 @@ public class LivroService {
         }
 
         this.livroRepository.delete(livro);
+        this.resolvedorUuid.remover(ResolvedorUuid.Tipo.LIVRO, livro.getUuid());
+        this.indiceCatalogo.remover(livro.getId());
+        this.indiceDisponibilidade.remover(livro.getId());
     }
 
     public void excluirPorUuid(UUID uuid) {
-        Livro livro = buscarPorUuid(uuid);
-
-        Optional<Emprestimo> emprestimoAtivo = emprestimoRepository.findEmprestimoAtivoPorLivro(livro.getId());
-        if (emprestimoAtivo.isPresent()) {
-            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Livro está emprestado e não pode ser excluído");
-        }
-
-        this.livroRepository.delete(livro);
+        excluir(idPorUuid(uuid));
     }
 
     public Livro atualizar(Long id, Livro livro) {
@@ -88,56 +138,121 @@ public class LivroService {
             atualizarCategoriasDoLivro(l, livro.getCategorias());
         }
 
-        return this.livroRepository.save(l);
+        return indexar(this.livroRepository.save(l));
     }
 
     public Livro atualizarPorUuid(UUID uuid, Livro livro) {
-        Livro l = this.livroRepository.findByUuid(uuid)
-                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Livro não encontrado"));
+        return atualizar(idPorUuid(uuid), livro);
+    }
 
-        l.setTitulo(livro.getTitulo());
-        l.setAutor(livro.getAutor());
-        l.setAnoPublicacao(livro.getAnoPublicacao());
-        l.setDisponivel(livro.getDisponivel());
+    // 🔥 MÉTODO AUXILIAR PARA ATUALIZAR CATEGORIAS
+    // Aplica só a diferença entre as categorias atuais e as pedidas, para que o Hibernate
+    // grave apenas as linhas de livro_categoria que realmente mudaram. O lado inverso
+    // (Categoria.livros) não é tocado para não carregar coleções grandes.
+    private void atualizarCategoriasDoLivro(Livro livroExistente, Set<Categoria> novasCategorias) {
+        Map<Long, Categoria> desejadas = resolverCategorias(novasCategorias);
 
-        // 🔥 ATUALIZAR CATEGORIAS
-        if (livro.getCategorias() != null) {
-            atualizarCategoriasDoLivro(l, livro.getCategorias());
-        }
+        Set<Categoria> atuais = livroExistente.getCategorias();
+        atuais.removeIf(categoria -> !desejadas.containsKey(categoria.getId()));
 
-        return this.livroRepository.save(l);
+        Set<Long> idsAtuais = atuais.stream().map(Categoria::getId).collect(Collectors.toSet());
+        desejadas.forEach((id, categoria) -> {
+            if (!idsAtuais.contains(id)) {
+                atuais.add(categoria);
+            }
+        });
     }
 
-    // 🔥 MÉTODO AUXILIAR PARA ATUALIZAR CATEGORIAS
-    private void atualizarCategoriasDoLivro(Livro livroExistente, Set<Categoria> novasCategorias) {
-        // Limpa as categorias atuais
-        livroExistente.getCategorias().clear();
-
-        // Busca e adiciona as novas categorias (garantindo que são entidades gerenciadas)
-        Set<Categoria> categoriasGerenciadas = new HashSet<>();
-        for (Categoria categoria : novasCategorias) {
-            Categoria categoriaGerenciada = categoriaService.buscarPorId(categoria.getId());
-            categoriasGerenciadas.add(categoriaGerenciada);
+    // Busca todas as categorias pedidas de uma vez, aceitando ID ou UUID em cada item
+    private Map<Long, Categoria> resolverCategorias(Set<Categoria> categorias) {
+        Set<Long> ids = new HashSet<>();
+        Set<UUID> uuids = new HashSet<>();
+        for (Categoria categoria : categorias) {
+            if (categoria.getId() != null) {
+                ids.add(categoria.getId());
+            } else if (categoria.getUuid() != null) {
+                uuids.add(categoria.getUuid());
+            } else {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Categoria deve ser informada por ID ou UUID");
+            }
+        }
+
+        List<Categoria> encontradas = new ArrayList<>(categoriaService.buscarTodasPorIds(ids));
+        encontradas.addAll(categoriaService.buscarTodasPorUuids(uuids));
+        if (encontradas.stream().filter(c -> ids.contains(c.getId())).count() != ids.size()
+                || encontradas.stream().filter(c -> uuids.contains(c.getUuid())).count() != uuids.size()) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Categoria não encontrada");
         }
 
-        livroExistente.getCategorias().addAll(categoriasGerenciadas);
+        return encontradas.stream()
+                .collect(Collectors.toMap(Categoria::getId, Function.identity(), (a, b) -> a));
     }
 
     // ... outros métodos permanecem iguais
-    public List<Livro> buscarPorTitulo(String titulo) {
-        return this.livroRepository.findByTituloContainingIgnoreCase(titulo);
+    public List<LivroDTO> buscarPorTitulo(String titulo) {
+        return paraDTO(this.livroRepository.findByTituloContainingIgnoreCase(titulo));
     }
 
-    public List<Livro> buscarPorTituloDisponiveis(String titulo) {
-        return this.livroRepository.findByTituloContainingIgnoreCaseAndDisponivelTrue(titulo);
+    public List<LivroDTO> buscarPorTituloDisponiveis(String titulo) {
+        return paraDTO(this.livroRepository.findByTituloContainingIgnoreCaseAndDisponivelTrue(titulo));
     }
 
-    public List<Livro> buscarPorAutor(String autor) {
-        return this.livroRepository.findByAutorContainingIgnoreCase(autor);
+    public List<LivroDTO> buscarPorAutor(String autor) {
+        return paraDTO(this.livroRepository.findByAutorContainingIgnoreCase(autor));
     }
 
-    public List<Livro> buscarPorAutorDisponiveis(String autor) {
-        return this.livroRepository.findByAutorContainingIgnoreCaseAndDisponivelTrue(autor);
+    public List<LivroDTO> buscarPorAutorDisponiveis(String autor) {
+        return paraDTO(this.livroRepository.findByAutorContainingIgnoreCaseAndDisponivelTrue(autor));
+    }
+
+    public Page<LivroDTO> buscarPorTexto(String texto, boolean somenteDisponiveis, Pageable pageable) {
+        // Cada palavra vira um termo obrigatório; a última também casa como prefixo,
+        // para que a busca funcione enquanto o usuário ainda está digitando
+        List<String> termos = Arrays.stream(texto.split("[^\\p{L}\\p{N}]+"))
+                .filter(t -> !t.isBlank())
+                .toList();
+        if (termos.isEmpty()) {
+            return Page.empty(pageable);
+        }
+
+        String consulta = String.join(" & ", termos) + ":*";
+        // A ordem é sempre a relevância: um sort vindo do cliente (?sort=) seria anexado ao SQL
+        // nativo depois do ORDER BY e quebraria a consulta, então só a página e o tamanho seguem
+        Pageable semOrdenacao = PageRequest.of(pageable.getPageNumber(), pageable.getPageSize());
+        Page<Long> ids = this.livroRepository.buscarIdsPorTexto(consulta, somenteDisponiveis, semOrdenacao);
+        List<LivroDTO> pagina = carregarNaOrdem(ids.getContent()).stream()
+                .map(LivroDTO::de)
+                .toList();
+        return new PageImpl<>(pagina, semOrdenacao, ids.getTotalElements());
+    }
+
+    public ResultadoPesquisaLivro pesquisar(FiltroLivro filtro, Pageable pageable) {
+        if (filtro.anoMinimo() != null && filtro.anoMaximo() != null && filtro.anoMinimo() > filtro.anoMaximo()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Ano mínimo não pode ser maior que o ano máximo");
+        }
+
+        // Como em buscarPorCategoria: a página de IDs sai da consulta filtrada e só então os livros
+        // da página são carregados junto com as categorias, em uma consulta
+        Page<Long> ids = this.livroRepository.findIdsPorFiltro(filtro, pageable);
+        List<LivroDTO> pagina = carregarNaOrdem(ids.getContent()).stream()
+                .map(LivroDTO::de)
+                .toList();
+        return new ResultadoPesquisaLivro(new PagedModel<>(new PageImpl<>(pagina, pageable, ids.getTotalElements())),
+                this.livroRepository.contarFacetas(filtro));
+    }
+
+    public List<SugestaoLivro> autocompletar(String termo, String campo, int limite) {
+        // Trigramas precisam de pelo menos 3 caracteres para gerar sugestões úteis
+        if (termo == null || termo.strip().length() < 3) {
+            return List.of();
+        }
+
+        int limiteEfetivo = Math.max(1, Math.min(limite, LIMITE_MAXIMO_SUGESTOES));
+        return switch (campo.toLowerCase()) {
+            case "titulo" -> this.livroRepository.sugerirTitulos(termo.strip(), limiteEfetivo);
+            case "autor" -> this.livroRepository.sugerirAutores(termo.strip(), limiteEfetivo);
+            default -> throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Campo deve ser 'titulo' ou 'autor'");
+        };
     }
 
     public Livro adicionarCategoria(Long livroId, Long categoriaId) {
@@ -145,7 +260,7 @@ public class LivroService {
         Categoria categoria = categoriaService.buscarPorId(categoriaId);
 
         livro.adicionarCategoria(categoria);
-        return this.livroRepository.save(livro);
+        return indexar(this.livroRepository.save(livro));
     }
 
     public Livro adicionarCategoriaPorUuid(UUID uuidLivro, Long categoriaId) {
@@ -153,7 +268,7 @@ public class LivroService {
         Categoria categoria = categoriaService.buscarPorId(categoriaId);
 
         livro.adicionarCategoria(categoria);
-        return this.livroRepository.save(livro);
+        return indexar(this.livroRepository.save(livro));
     }
 
     public Livro removerCategoria(Long livroId, Long categoriaId) {
@@ -161,7 +276,7 @@ public class LivroService {
         Categoria categoria = categoriaService.buscarPorId(categoriaId);
 
         livro.removerCategoria(categoria);
-        return this.livroRepository.save(livro);
+        return indexar(this.livroRepository.save(livro));
     }
 
     public Livro removerCategoriaPorUuid(UUID uuidLivro, Long categoriaId) {
@@ -169,15 +284,63 @@ public class LivroService {
         Categoria categoria = categoriaService.buscarPorId(categoriaId);
 
         livro.removerCategoria(categoria);
-        return this.livroRepository.save(livro);
+        return indexar(this.livroRepository.save(livro));
     }
 
-    public List<Livro> buscarPorCategoria(Long categoriaId) {
-        Categoria categoria = categoriaService.buscarPorId(categoriaId);
-        return new ArrayList<>(categoria.getLivros());
+    public List<IndiceCatalogo.ResultadoBusca> buscarNoIndice(String texto, boolean prefixo, int limite) {
+        return this.indiceCatalogo.buscar(texto, prefixo, Math.max(1, Math.min(limite, 100)));
+    }
+
+    public IndiceCatalogo.Estatisticas estatisticasDoIndice() {
+        return this.indiceCatalogo.estatisticas();
+    }
+
+    // Mantém os índices em memória iguais ao que acabou de ser gravado
+    private Livro indexar(Livro livro) {
+        this.indiceCatalogo.indexar(livro);
+        this.indiceDisponibilidade.atualizar(livro);
+        return livro;
+    }
+
+    public long contarNoIndice(Long categoriaId, Boolean disponivel) {
+        return this.indiceDisponibilidade.contar(categoriaId, disponivel);
+    }
+
+    // Página ordenada por ID: os IDs saem dos bitmaps e só os livros da página vão ao banco
+    public Page<Livro> listarPeloIndice(Long categoriaId, Boolean disponivel, Pageable pageable) {
+        List<Long> ids = this.indiceDisponibilidade.listarIds(categoriaId, disponivel, pageable.getOffset(), pageable.getPageSize());
+        long total = this.indiceDisponibilidade.contar(categoriaId, disponivel);
+        return new PageImpl<>(carregarNaOrdem(ids), pageable, total);
+    }
+
+    public IndiceDisponibilidade.Estatisticas estatisticasDaDisponibilidade() {
+        return this.indiceDisponibilidade.estatisticas();
+    }
+
+    public Page<Livro> buscarPorCategoria(Long categoriaId, Pageable pageable) {
+        categoriaService.buscarPorId(categoriaId);
+
+        Page<Long> ids = this.livroRepository.findIdsPorCategoria(categoriaId, pageable);
+        return new PageImpl<>(carregarNaOrdem(ids.getContent()), pageable, ids.getTotalElements());
+    }
+
+    // As consultas das listagens já trazem as categorias, então o mapeamento não dispara
+    // carregamentos preguiçosos nem depende de open-in-view
+    private static List<LivroDTO> paraDTO(List<Livro> livros) {
+        return livros.stream().map(LivroDTO::de).toList();
+    }
+
+    // O JOIN FETCH não preserva a ordem dos IDs, então os livros são reordenados
+    private List<Livro> carregarNaOrdem(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, Livro> porId = this.livroRepository.findComCategoriasPorIds(ids).stream()
+                .collect(Collectors.toMap(Livro::getId, Function.identity()));
+        return ids.stream().map(porId::get).filter(Objects::nonNull).toList();
     }
 
     public boolean existePorUuid(UUID uuid) {
-        return this.livroRepository.existsByUuid(uuid);
+        return this.resolvedorUuid.resolver(ResolvedorUuid.Tipo.LIVRO, uuid).isPresent();
     }
 }
\ No newline at end of file
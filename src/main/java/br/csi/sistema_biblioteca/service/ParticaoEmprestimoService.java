@@ -0,0 +1,27 @@
+package br.csi.sistema_biblioteca.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+@Service
+@RequiredArgsConstructor
+public class ParticaoEmprestimoService {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Value("${biblioteca.particoes.anos-a-frente:2}")
+    private int anosAFrente;
+
+    // Mantém criadas as partições anuais de emprestimo antes de serem necessárias,
+    // para que nenhum empréstimo novo caia na partição padrão
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "${biblioteca.particoes.cron:0 0 4 1 * *}")
+    public void criarParticoesFuturas() {
+        this.jdbcTemplate.queryForList("SELECT criar_particoes_emprestimo(?)", anosAFrente);
+    }
+}
@@ -0,0 +1,75 @@
+package br.csi.sistema_biblioteca.service;
+
+import br.csi.sistema_biblioteca.infra.EstatisticasCache;
+import br.csi.sistema_biblioteca.model.cliente.ClienteRepository;
+import br.csi.sistema_biblioteca.model.funcionario.FuncionarioRepository;
+import br.csi.sistema_biblioteca.model.livro_categoria.LivroRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.Optional;
+import java.util.UUID;
+
+// Traduz o UUID público para o ID interno sem consultar o índice de uuid a cada requisição:
+// as rotas /uuid/ resolvem o ID aqui e seguem pelo caminho da chave primária (que ainda
+// passa pelo cache de segundo nível). O UUID de um registro nunca muda e IDs não são
+// reutilizados, então uma entrada velha de um registro excluído em outra instância só leva
+// a uma busca por ID que não encontra nada (404). Categorias não passam por aqui porque o
+// CategoriaService já mantém as entidades em cache por UUID.
+@Service
+public class ResolvedorUuid {
+
+    public enum Tipo {
+        LIVRO, CLIENTE, FUNCIONARIO
+    }
+
+    private record Chave(Tipo tipo, UUID uuid) {
+    }
+
+    private final LivroRepository livroRepository;
+    private final ClienteRepository clienteRepository;
+    private final FuncionarioRepository funcionarioRepository;
+
+    private final Cache<Chave, Long> ids;
+
+    public ResolvedorUuid(LivroRepository livroRepository,
+                          ClienteRepository clienteRepository,
+                          FuncionarioRepository funcionarioRepository,
+                          @Value("${biblioteca.cache.uuid.tamanho-maximo:100000}") long tamanhoMaximo) {
+        this.livroRepository = livroRepository;
+        this.clienteRepository = clienteRepository;
+        this.funcionarioRepository = funcionarioRepository;
+        this.ids = Caffeine.newBuilder()
+                .maximumSize(tamanhoMaximo)
+                .recordStats()
+                .build();
+    }
+
+    // UUIDs inexistentes não entram no cache (o carregamento devolve null)
+    public Optional<Long> resolver(Tipo tipo, UUID uuid) {
+        return Optional.ofNullable(this.ids.get(new Chave(tipo, uuid), this::carregar));
+    }
+
+    public void registrar(Tipo tipo, UUID uuid, Long id) {
+        this.ids.put(new Chave(tipo, uuid), id);
+    }
+
+    public void remover(Tipo tipo, UUID uuid) {
+        this.ids.invalidate(new Chave(tipo, uuid));
+    }
+
+    public EstatisticasCache estatisticas() {
+        return EstatisticasCache.de("uuid", this.ids);
+    }
+
+    private Long carregar(Chave chave) {
+        Optional<Long> id = switch (chave.tipo()) {
+            case LIVRO -> this.livroRepository.findIdByUuid(chave.uuid());
+            case CLIENTE -> this.clienteRepository.findIdByUuid(chave.uuid());
+            case FUNCIONARIO -> this.funcionarioRepository.findIdByUuid(chave.uuid());
+        };
+        return id.orElse(null);
+    }
+}
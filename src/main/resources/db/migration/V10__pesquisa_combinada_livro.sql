@@ -0,0 +1,2 @@
+-- Filtro por faixa de ano da pesquisa combinada de livros (/livros/pesquisar)
+CREATE INDEX idx_livro_ano_publicacao ON livro(ano_publicacao);
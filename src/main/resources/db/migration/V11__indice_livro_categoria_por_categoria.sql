@@ -0,0 +1,3 @@
+-- A chave primária (id_livro, id_categoria) não atende buscas a partir da categoria;
+-- este índice serve a listagem paginada de livros por categoria e os filtros por categoria
+CREATE INDEX idx_livro_categoria_categoria_livro ON livro_categoria(id_categoria, id_livro);
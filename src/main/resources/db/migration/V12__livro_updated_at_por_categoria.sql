@@ -0,0 +1,30 @@
+-- Mudanças nas categorias de um livro alteram o JSON do livro, então também atualizam
+-- livro.updated_at, usado nos ETags (o UPDATE dispara update_livro_updated_at).
+-- Triggers por comando com tabelas de transição: uma importação em lote gera um único UPDATE.
+CREATE OR REPLACE FUNCTION tocar_livro_por_categoria_inserida()
+    RETURNS TRIGGER AS $$
+BEGIN
+    UPDATE livro SET updated_at = CURRENT_TIMESTAMP
+    WHERE id_livro IN (SELECT id_livro FROM novas);
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE OR REPLACE FUNCTION tocar_livro_por_categoria_removida()
+    RETURNS TRIGGER AS $$
+BEGIN
+    UPDATE livro SET updated_at = CURRENT_TIMESTAMP
+    WHERE id_livro IN (SELECT id_livro FROM removidas);
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER livro_categoria_inserida
+    AFTER INSERT ON livro_categoria
+    REFERENCING NEW TABLE AS novas
+    FOR EACH STATEMENT EXECUTE FUNCTION tocar_livro_por_categoria_inserida();
+
+CREATE TRIGGER livro_categoria_removida
+    AFTER DELETE ON livro_categoria
+    REFERENCING OLD TABLE AS removidas
+    FOR EACH STATEMENT EXECUTE FUNCTION tocar_livro_por_categoria_removida();
@@ -0,0 +1,31 @@
+-- UUIDs públicos passam a ser versão 7 (RFC 9562): 48 bits de milissegundos seguidos de bits
+-- aleatórios. Novas linhas entram no fim do índice de uuid, em vez de em uma página aleatória.
+-- Mesmo formato de br.csi.sistema_biblioteca.model.UuidV7; os UUIDs já existentes não mudam.
+-- Parte de um UUID v4 (versão 0100 e variante já corretas), troca os 6 primeiros bytes pelo
+-- instante atual e liga os bits 4 e 5 do byte 6, transformando a versão 0100 em 0111.
+CREATE OR REPLACE FUNCTION uuid_generate_v7()
+    RETURNS uuid AS $$
+SELECT encode(
+               set_bit(
+                       set_bit(
+                               overlay(uuid_send(gen_random_uuid())
+                                       PLACING substring(int8send(floor(extract(epoch FROM clock_timestamp()) * 1000)::bigint) FROM 3)
+                                       FROM 1 FOR 6),
+                               52, 1),
+                       53, 1),
+               'hex')::uuid;
+$$ LANGUAGE sql VOLATILE;
+
+ALTER TABLE cliente ALTER COLUMN uuid SET DEFAULT uuid_generate_v7();
+ALTER TABLE funcionario ALTER COLUMN uuid SET DEFAULT uuid_generate_v7();
+ALTER TABLE categoria ALTER COLUMN uuid SET DEFAULT uuid_generate_v7();
+ALTER TABLE livro ALTER COLUMN uuid SET DEFAULT uuid_generate_v7();
+-- Em tabela particionada o DEFAULT vale também para as partições
+ALTER TABLE emprestimo ALTER COLUMN uuid SET DEFAULT uuid_generate_v7();
+
+-- Cada coluna uuid já tem o índice da restrição UNIQUE; estes repetiam o mesmo índice
+-- e dobravam o custo de escrita (idx_emprestimo_uuid saiu junto com emprestimo_legado no V7)
+DROP INDEX IF EXISTS idx_cliente_uuid;
+DROP INDEX IF EXISTS idx_funcionario_uuid;
+DROP INDEX IF EXISTS idx_categoria_uuid;
+DROP INDEX IF EXISTS idx_livro_uuid;
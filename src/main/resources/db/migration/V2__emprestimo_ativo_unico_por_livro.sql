@@ -0,0 +1,6 @@
+-- Garante no banco que um livro só pode ter um empréstimo em aberto por vez.
+-- Funciona como última barreira caso duas requisições concorrentes tentem
+-- emprestar o mesmo exemplar.
+CREATE UNIQUE INDEX uq_emprestimo_livro_ativo
+    ON emprestimo(id_livro)
+    WHERE data_devolucao IS NULL;
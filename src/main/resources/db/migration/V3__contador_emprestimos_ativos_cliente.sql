@@ -0,0 +1,37 @@
+-- Quantidade de empréstimos em aberto de cada cliente, mantida por trigger.
+-- Evita o COUNT sobre emprestimo no limite de empréstimos e na exclusão de clientes.
+ALTER TABLE cliente ADD COLUMN emprestimos_ativos INTEGER NOT NULL DEFAULT 0;
+
+UPDATE cliente c
+SET emprestimos_ativos = (SELECT COUNT(*)
+                          FROM emprestimo e
+                          WHERE e.id_cliente = c.id_cliente
+                            AND e.data_devolucao IS NULL);
+
+ALTER TABLE cliente ADD CONSTRAINT ck_cliente_emprestimos_ativos CHECK (emprestimos_ativos >= 0);
+
+CREATE OR REPLACE FUNCTION atualizar_emprestimos_ativos_cliente()
+    RETURNS TRIGGER AS $$
+BEGIN
+    -- Atualizações que não abrem, fecham nem trocam o cliente do empréstimo não alteram o contador
+    IF TG_OP = 'UPDATE'
+        AND (OLD.data_devolucao IS NULL) = (NEW.data_devolucao IS NULL)
+        AND OLD.id_cliente = NEW.id_cliente THEN
+        RETURN NULL;
+    END IF;
+
+    IF TG_OP IN ('UPDATE', 'DELETE') AND OLD.data_devolucao IS NULL THEN
+        UPDATE cliente SET emprestimos_ativos = emprestimos_ativos - 1 WHERE id_cliente = OLD.id_cliente;
+    END IF;
+
+    IF TG_OP IN ('INSERT', 'UPDATE') AND NEW.data_devolucao IS NULL THEN
+        UPDATE cliente SET emprestimos_ativos = emprestimos_ativos + 1 WHERE id_cliente = NEW.id_cliente;
+    END IF;
+
+    RETURN NULL;
+END;
+$$ language 'plpgsql';
+
+CREATE TRIGGER atualizar_emprestimos_ativos_cliente
+    AFTER INSERT OR DELETE OR UPDATE OF data_devolucao, id_cliente ON emprestimo
+    FOR EACH ROW EXECUTE FUNCTION atualizar_emprestimos_ativos_cliente();
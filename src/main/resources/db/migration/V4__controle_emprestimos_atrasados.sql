@@ -0,0 +1,15 @@
+-- Situação de atraso mantida incrementalmente pelo AtrasoService em vez de calculada a cada consulta
+ALTER TABLE emprestimo ADD COLUMN atrasado BOOLEAN NOT NULL DEFAULT false;
+
+UPDATE emprestimo
+SET atrasado = true
+WHERE data_devolucao IS NULL
+  AND data_devolucao_prevista < CURRENT_TIMESTAMP;
+
+-- Empréstimos abertos ainda no prazo: a marcação só percorre o trecho que acabou de vencer
+CREATE INDEX idx_emprestimo_a_vencer ON emprestimo(data_devolucao_prevista)
+    WHERE data_devolucao IS NULL AND NOT atrasado;
+
+-- Empréstimos em atraso, já na ordem em que GET /emprestimos/atrasados os devolve
+CREATE INDEX idx_emprestimo_atrasado ON emprestimo(data_devolucao_prevista, id_emprestimo)
+    WHERE data_devolucao IS NULL AND atrasado;
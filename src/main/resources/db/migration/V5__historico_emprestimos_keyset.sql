@@ -0,0 +1,18 @@
+-- A paginação por cursor do histórico ordena por (data_emprestimo, id_emprestimo),
+-- por isso data_emprestimo não pode ser nula
+UPDATE emprestimo
+SET data_emprestimo = COALESCE(created_at, CURRENT_TIMESTAMP)
+WHERE data_emprestimo IS NULL;
+
+ALTER TABLE emprestimo ALTER COLUMN data_emprestimo SET NOT NULL;
+
+-- Índices compostos na mesma ordem do histórico; substituem os índices simples
+-- de id_cliente e id_funcionario, que passam a ser prefixo destes
+CREATE INDEX idx_emprestimo_cliente_historico
+    ON emprestimo(id_cliente, data_emprestimo DESC, id_emprestimo DESC);
+
+CREATE INDEX idx_emprestimo_funcionario_historico
+    ON emprestimo(id_funcionario, data_emprestimo DESC, id_emprestimo DESC);
+
+DROP INDEX idx_emprestimo_cliente;
+DROP INDEX idx_emprestimo_funcionario;
@@ -0,0 +1,15 @@
+-- Outbox dos eventos de empréstimo e devolução: gravada na mesma transação da operação
+-- e despachada em segundo plano pelo EventoEmprestimoRelay
+CREATE TABLE evento_emprestimo (
+                                   id_evento BIGSERIAL NOT NULL PRIMARY KEY,
+                                   tipo VARCHAR(20) NOT NULL,
+                                   id_emprestimo BIGINT NOT NULL,
+                                   id_cliente BIGINT NOT NULL,
+                                   id_livro BIGINT NOT NULL,
+                                   ocorrido_em TIMESTAMP NOT NULL,
+                                   processado_em TIMESTAMP NULL
+);
+
+-- Somente os eventos ainda não despachados, na ordem em que serão lidos
+CREATE INDEX idx_evento_emprestimo_pendente ON evento_emprestimo(id_evento) WHERE processado_em IS NULL;
+CREATE INDEX idx_evento_emprestimo_processado ON evento_emprestimo(processado_em) WHERE processado_em IS NOT NULL;
@@ -0,0 +1,222 @@
+-- Converte emprestimo em tabela particionada por ano de data_emprestimo.
+-- Os índices passam a existir por partição, e anos já encerrados podem ser
+-- desanexados para o schema "arquivo" sem tocar nas partições recentes.
+
+-- A sequência dos IDs sobrevive à troca de tabela
+ALTER SEQUENCE emprestimo_id_emprestimo_seq OWNED BY NONE;
+
+ALTER TABLE emprestimo RENAME TO emprestimo_legado;
+
+-- Em tabelas particionadas, PK e UNIQUE precisam incluir a chave de partição. uq_emprestimo_uuid
+-- só garante unicidade dentro de cada partição (serve de índice para as buscas por uuid); a
+-- unicidade global fica com a tabela emprestimo_uuid, mais abaixo
+CREATE TABLE emprestimo (
+                            id_emprestimo BIGINT NOT NULL DEFAULT nextval('emprestimo_id_emprestimo_seq'),
+                            uuid UUID NOT NULL DEFAULT gen_random_uuid(),
+                            data_emprestimo TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+                            data_devolucao TIMESTAMP NULL,
+                            data_devolucao_prevista TIMESTAMP NOT NULL,
+                            id_cliente BIGINT NOT NULL,
+                            id_livro BIGINT NOT NULL,
+                            id_funcionario BIGINT NOT NULL,
+                            created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+                            updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+                            atrasado BOOLEAN NOT NULL DEFAULT false,
+                            CONSTRAINT pk_emprestimo PRIMARY KEY (id_emprestimo, data_emprestimo),
+                            CONSTRAINT uq_emprestimo_uuid UNIQUE (uuid, data_emprestimo),
+                            FOREIGN KEY (id_cliente) REFERENCES cliente(id_cliente),
+                            FOREIGN KEY (id_livro) REFERENCES livro(id_livro),
+                            FOREIGN KEY (id_funcionario) REFERENCES funcionario(id_funcionario)
+) PARTITION BY RANGE (data_emprestimo);
+
+ALTER SEQUENCE emprestimo_id_emprestimo_seq OWNED BY emprestimo.id_emprestimo;
+
+-- Recebe linhas fora de qualquer partição anual, para que nenhum INSERT falhe
+CREATE TABLE emprestimo_padrao PARTITION OF emprestimo DEFAULT;
+
+-- O PostgreSQL recusa criar uma partição cujo intervalo já tem linhas na DEFAULT, então as
+-- linhas daquele ano que caíram em emprestimo_padrao são movidas para a partição nova
+CREATE OR REPLACE FUNCTION criar_particao_emprestimo(ano INTEGER)
+    RETURNS void AS $$
+DECLARE
+    particao TEXT := 'emprestimo_' || ano;
+    inicio DATE := make_date(ano, 1, 1);
+    fim DATE := make_date(ano + 1, 1, 1);
+BEGIN
+    IF to_regclass(particao) IS NOT NULL THEN
+        RETURN;
+    END IF;
+
+    -- Impede novos INSERTs na DEFAULT entre a verificação e a criação da partição
+    LOCK TABLE emprestimo IN ACCESS EXCLUSIVE MODE;
+
+    IF NOT EXISTS (SELECT 1
+                   FROM emprestimo_padrao
+                   WHERE data_emprestimo >= inicio
+                     AND data_emprestimo < fim) THEN
+        EXECUTE format('CREATE TABLE IF NOT EXISTS %I PARTITION OF emprestimo FOR VALUES FROM (%L) TO (%L)',
+                       particao, inicio, fim);
+        RETURN;
+    END IF;
+
+    -- Com a DEFAULT desanexada, os triggers clonados da tabela pai deixam de existir nela e na
+    -- tabela nova: a mudança de partição não dispara emprestimo_aberto, emprestimo_uuid,
+    -- contadores nem updated_at
+    ALTER TABLE emprestimo DETACH PARTITION emprestimo_padrao;
+
+    EXECUTE format('CREATE TABLE %I (LIKE emprestimo INCLUDING DEFAULTS)', particao);
+    EXECUTE format('WITH movidos AS (DELETE FROM emprestimo_padrao '
+                       'WHERE data_emprestimo >= %L AND data_emprestimo < %L RETURNING *) '
+                       'INSERT INTO %I SELECT * FROM movidos',
+                   inicio, fim, particao);
+    EXECUTE format('ALTER TABLE emprestimo ATTACH PARTITION %I FOR VALUES FROM (%L) TO (%L)',
+                   particao, inicio, fim);
+
+    ALTER TABLE emprestimo ATTACH PARTITION emprestimo_padrao DEFAULT;
+END;
+$$ language 'plpgsql';
+
+-- Garante as partições do ano corrente e dos próximos anos; chamada periodicamente pela aplicação
+CREATE OR REPLACE FUNCTION criar_particoes_emprestimo(anos_a_frente INTEGER)
+    RETURNS void AS $$
+DECLARE
+    ano_atual INTEGER := EXTRACT(YEAR FROM CURRENT_DATE)::INTEGER;
+BEGIN
+    FOR ano IN ano_atual .. ano_atual + anos_a_frente LOOP
+        PERFORM criar_particao_emprestimo(ano);
+    END LOOP;
+END;
+$$ language 'plpgsql';
+
+-- Desanexa um ano encerrado e o move para o schema de arquivo; recusa anos com empréstimos em aberto
+CREATE SCHEMA IF NOT EXISTS arquivo;
+
+CREATE OR REPLACE FUNCTION arquivar_particao_emprestimo(ano INTEGER)
+    RETURNS void AS $$
+DECLARE
+    particao TEXT := 'emprestimo_' || ano;
+BEGIN
+    IF EXISTS (SELECT 1
+               FROM emprestimo
+               WHERE data_emprestimo >= make_date(ano, 1, 1)
+                 AND data_emprestimo < make_date(ano + 1, 1, 1)
+                 AND data_devolucao IS NULL) THEN
+        RAISE EXCEPTION 'A partição % ainda possui empréstimos em aberto', particao;
+    END IF;
+
+    EXECUTE format('ALTER TABLE emprestimo DETACH PARTITION %I', particao);
+    EXECUTE format('ALTER TABLE %I SET SCHEMA arquivo', particao);
+END;
+$$ language 'plpgsql';
+
+-- Partições para todos os anos já existentes e para os próximos dois
+DO $$
+DECLARE
+    ano INTEGER;
+BEGIN
+    FOR ano IN SELECT DISTINCT EXTRACT(YEAR FROM data_emprestimo)::INTEGER FROM emprestimo_legado LOOP
+        PERFORM criar_particao_emprestimo(ano);
+    END LOOP;
+    PERFORM criar_particoes_emprestimo(2);
+END;
+$$;
+
+INSERT INTO emprestimo (id_emprestimo, uuid, data_emprestimo, data_devolucao, data_devolucao_prevista,
+                        id_cliente, id_livro, id_funcionario, created_at, updated_at, atrasado)
+SELECT id_emprestimo, uuid, data_emprestimo, data_devolucao, data_devolucao_prevista,
+       id_cliente, id_livro, id_funcionario, created_at, updated_at, atrasado
+FROM emprestimo_legado;
+
+DROP TABLE emprestimo_legado;
+
+-- Um índice único não pode abranger todas as partições sem incluir data_emprestimo, por isso
+-- a regra "um empréstimo em aberto por livro" passa a ser garantida por esta tabela,
+-- mantida por trigger (a chave primária recusa um segundo empréstimo aberto do mesmo livro)
+CREATE TABLE emprestimo_aberto (
+                                   id_livro BIGINT NOT NULL PRIMARY KEY,
+                                   id_emprestimo BIGINT NOT NULL,
+                                   FOREIGN KEY (id_livro) REFERENCES livro(id_livro)
+);
+
+INSERT INTO emprestimo_aberto (id_livro, id_emprestimo)
+SELECT id_livro, id_emprestimo FROM emprestimo WHERE data_devolucao IS NULL;
+
+CREATE OR REPLACE FUNCTION manter_emprestimo_aberto()
+    RETURNS TRIGGER AS $$
+BEGIN
+    IF TG_OP = 'UPDATE'
+        AND (OLD.data_devolucao IS NULL) = (NEW.data_devolucao IS NULL)
+        AND OLD.id_livro = NEW.id_livro THEN
+        RETURN NULL;
+    END IF;
+
+    IF TG_OP IN ('UPDATE', 'DELETE') AND OLD.data_devolucao IS NULL THEN
+        DELETE FROM emprestimo_aberto WHERE id_livro = OLD.id_livro AND id_emprestimo = OLD.id_emprestimo;
+    END IF;
+
+    IF TG_OP IN ('INSERT', 'UPDATE') AND NEW.data_devolucao IS NULL THEN
+        INSERT INTO emprestimo_aberto (id_livro, id_emprestimo) VALUES (NEW.id_livro, NEW.id_emprestimo);
+    END IF;
+
+    RETURN NULL;
+END;
+$$ language 'plpgsql';
+
+CREATE TRIGGER manter_emprestimo_aberto
+    AFTER INSERT OR DELETE OR UPDATE OF data_devolucao, id_livro ON emprestimo
+    FOR EACH ROW EXECUTE FUNCTION manter_emprestimo_aberto();
+
+-- Pelo mesmo motivo, a unicidade do uuid entre partições é garantida pela chave primária desta
+-- tabela. Um DELETE libera o uuid da linha excluída; já o arquivamento desanexa a partição sem
+-- disparar o trigger, então os uuids de anos arquivados continuam reservados
+CREATE TABLE emprestimo_uuid (
+                                 uuid UUID NOT NULL PRIMARY KEY,
+                                 id_emprestimo BIGINT NOT NULL
+);
+
+INSERT INTO emprestimo_uuid (uuid, id_emprestimo)
+SELECT uuid, id_emprestimo FROM emprestimo;
+
+CREATE OR REPLACE FUNCTION manter_emprestimo_uuid()
+    RETURNS TRIGGER AS $$
+BEGIN
+    IF TG_OP = 'UPDATE' AND OLD.uuid = NEW.uuid THEN
+        RETURN NULL;
+    END IF;
+
+    IF TG_OP IN ('UPDATE', 'DELETE') THEN
+        DELETE FROM emprestimo_uuid WHERE uuid = OLD.uuid AND id_emprestimo = OLD.id_emprestimo;
+    END IF;
+
+    IF TG_OP IN ('INSERT', 'UPDATE') THEN
+        INSERT INTO emprestimo_uuid (uuid, id_emprestimo) VALUES (NEW.uuid, NEW.id_emprestimo);
+    END IF;
+
+    RETURN NULL;
+END;
+$$ language 'plpgsql';
+
+CREATE TRIGGER manter_emprestimo_uuid
+    AFTER INSERT OR DELETE OR UPDATE OF uuid ON emprestimo
+    FOR EACH ROW EXECUTE FUNCTION manter_emprestimo_uuid();
+
+CREATE TRIGGER update_emprestimo_updated_at
+    BEFORE UPDATE ON emprestimo
+    FOR EACH ROW EXECUTE FUNCTION update_updated_at_column();
+
+CREATE TRIGGER atualizar_emprestimos_ativos_cliente
+    AFTER INSERT OR DELETE OR UPDATE OF data_devolucao, id_cliente ON emprestimo
+    FOR EACH ROW EXECUTE FUNCTION atualizar_emprestimos_ativos_cliente();
+
+-- Índices recriados na tabela particionada (propagados para cada partição)
+CREATE INDEX idx_emprestimo_livro ON emprestimo(id_livro);
+CREATE INDEX idx_emprestimo_data_devolucao ON emprestimo(data_devolucao);
+CREATE INDEX idx_emprestimo_data_prevista ON emprestimo(data_devolucao_prevista);
+CREATE INDEX idx_emprestimo_cliente_historico
+    ON emprestimo(id_cliente, data_emprestimo DESC, id_emprestimo DESC);
+CREATE INDEX idx_emprestimo_funcionario_historico
+    ON emprestimo(id_funcionario, data_emprestimo DESC, id_emprestimo DESC);
+CREATE INDEX idx_emprestimo_a_vencer ON emprestimo(data_devolucao_prevista)
+    WHERE data_devolucao IS NULL AND NOT atrasado;
+CREATE INDEX idx_emprestimo_atrasado ON emprestimo(data_devolucao_prevista, id_emprestimo)
+    WHERE data_devolucao IS NULL AND atrasado;
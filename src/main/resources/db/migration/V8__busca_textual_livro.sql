@@ -0,0 +1,15 @@
+-- Busca textual em português, sem diferenciar acentos, sobre título e autor do livro
+CREATE EXTENSION IF NOT EXISTS unaccent;
+
+CREATE TEXT SEARCH CONFIGURATION portugues_sem_acento (COPY = portuguese);
+
+ALTER TEXT SEARCH CONFIGURATION portugues_sem_acento
+    ALTER MAPPING FOR hword, hword_part, word WITH unaccent, portuguese_stem;
+
+-- Coluna calculada pelo próprio banco; título pesa mais que autor na ordenação
+ALTER TABLE livro ADD COLUMN busca TSVECTOR GENERATED ALWAYS AS (
+    setweight(to_tsvector('portugues_sem_acento'::regconfig, coalesce(titulo, '')), 'A') ||
+    setweight(to_tsvector('portugues_sem_acento'::regconfig, coalesce(autor, '')), 'B')
+) STORED;
+
+CREATE INDEX idx_livro_busca ON livro USING GIN (busca);
@@ -0,0 +1,14 @@
+-- Autocompletar tolerante a erros de digitação sobre título e autor
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+-- unaccent() não é IMMUTABLE, então não pode ser usada diretamente em índices;
+-- esta função fixa o dicionário e pode ser indexada
+CREATE OR REPLACE FUNCTION normalizar_busca(texto TEXT)
+    RETURNS TEXT
+    LANGUAGE sql IMMUTABLE PARALLEL SAFE STRICT
+AS $$
+    SELECT lower(public.unaccent('public.unaccent'::regdictionary, texto))
+$$;
+
+CREATE INDEX idx_livro_titulo_trgm ON livro USING GIN (normalizar_busca(titulo) gin_trgm_ops);
+CREATE INDEX idx_livro_autor_trgm ON livro USING GIN (normalizar_busca(autor) gin_trgm_ops);
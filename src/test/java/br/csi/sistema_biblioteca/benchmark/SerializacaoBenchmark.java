@@ -0,0 +1,155 @@
+package br.csi.sistema_biblioteca.benchmark;
+
+import br.csi.sistema_biblioteca.model.cliente.Cliente;
+import br.csi.sistema_biblioteca.model.emprestimo.Emprestimo;
+import br.csi.sistema_biblioteca.model.emprestimo.EmprestimoDTO;
+import br.csi.sistema_biblioteca.model.funcionario.Funcionario;
+import br.csi.sistema_biblioteca.model.livro_categoria.Categoria;
+import br.csi.sistema_biblioteca.model.livro_categoria.Livro;
+import br.csi.sistema_biblioteca.model.livro_categoria.LivroDTO;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+// Compara a serialização das entidades (como os controllers faziam) com o mapeamento para DTOs,
+// com e sem o Blackbird. As entidades aqui são objetos simples, sem proxies nem carregamento
+// tardio do Hibernate, então o custo real de devolver entidades é maior do que o medido.
+//
+// Execução (vazão e, com o GCProfiler, bytes alocados por operação em gc.alloc.rate.norm):
+//   ./mvnw test-compile exec:exec -Dexec.classpathScope=test -Dexec.executable=java \
+//       -Dexec.args="-classpath %classpath br.csi.sistema_biblioteca.benchmark.SerializacaoBenchmark"
+// Precisa ser exec:exec: o processo do @Fork herda o java.class.path de quem o inicia, e dentro
+// da JVM do Maven (exec:java) ele não contém as classes de teste nem o JMH.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SerializacaoBenchmark {
+
+    // 1 simula a busca por ID; 50 uma página de listagem
+    @Param({"1", "50"})
+    private int quantidade;
+
+    private List<Livro> livros;
+    private List<Emprestimo> emprestimos;
+
+    private ObjectWriter livrosEntidade;
+    private ObjectWriter livrosDto;
+    private ObjectWriter livrosDtoBlackbird;
+    private ObjectWriter emprestimosEntidade;
+    private ObjectWriter emprestimosDto;
+    private ObjectWriter emprestimosDtoBlackbird;
+
+    private final ByteArrayOutputStream saida = new ByteArrayOutputStream(64 * 1024);
+
+    @Setup
+    public void preparar() {
+        List<Categoria> categorias = new ArrayList<>();
+        for (long i = 1; i <= 5; i++) {
+            Categoria categoria = new Categoria("Categoria " + i);
+            categoria.setId(i);
+            categoria.setDescricao("Descrição da categoria " + i);
+            categorias.add(categoria);
+        }
+
+        Cliente cliente = new Cliente("Maria Santos", "12345678901");
+        cliente.setId(1L);
+        cliente.setUuid(UUID.randomUUID());
+        cliente.setTelefone("(11) 99999-9999");
+        cliente.setEndereco("Rua das Flores, 123 - Centro - São Paulo/SP");
+
+        Funcionario funcionario = new Funcionario("João Silva", "joao.silva@biblioteca.com", "senha");
+        funcionario.setId(1L);
+        funcionario.setUuid(UUID.randomUUID());
+
+        livros = new ArrayList<>();
+        emprestimos = new ArrayList<>();
+        for (long i = 1; i <= quantidade; i++) {
+            Livro livro = new Livro("Título do livro número " + i, "Autor " + i);
+            livro.setId(i);
+            livro.setAnoPublicacao(1900 + (int) i);
+            for (int c = 0; c < 3; c++) {
+                livro.adicionarCategoria(categorias.get((int) ((i + c) % categorias.size())));
+            }
+            livros.add(livro);
+
+            Emprestimo emprestimo = new Emprestimo(cliente, livro, funcionario);
+            emprestimo.setId(i);
+            emprestimos.add(emprestimo);
+        }
+
+        JsonMapper padrao = JsonMapper.builder()
+                .addModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+        JsonMapper blackbird = padrao.rebuild().addModule(new BlackbirdModule()).build();
+
+        livrosEntidade = padrao.writerFor(new TypeReference<List<Livro>>() {});
+        livrosDto = padrao.writerFor(new TypeReference<List<LivroDTO>>() {});
+        livrosDtoBlackbird = blackbird.writerFor(new TypeReference<List<LivroDTO>>() {});
+        emprestimosEntidade = padrao.writerFor(new TypeReference<List<Emprestimo>>() {});
+        emprestimosDto = padrao.writerFor(new TypeReference<List<EmprestimoDTO>>() {});
+        emprestimosDtoBlackbird = blackbird.writerFor(new TypeReference<List<EmprestimoDTO>>() {});
+    }
+
+    @Benchmark
+    public int livrosEntidade() throws IOException {
+        return escrever(livrosEntidade, livros);
+    }
+
+    @Benchmark
+    public int livrosDto() throws IOException {
+        return escrever(livrosDto, livros.stream().map(LivroDTO::de).toList());
+    }
+
+    @Benchmark
+    public int livrosDtoBlackbird() throws IOException {
+        return escrever(livrosDtoBlackbird, livros.stream().map(LivroDTO::de).toList());
+    }
+
+    @Benchmark
+    public int emprestimosEntidade() throws IOException {
+        return escrever(emprestimosEntidade, emprestimos);
+    }
+
+    @Benchmark
+    public int emprestimosDto() throws IOException {
+        return escrever(emprestimosDto, emprestimos.stream().map(EmprestimoDTO::de).toList());
+    }
+
+    @Benchmark
+    public int emprestimosDtoBlackbird() throws IOException {
+        return escrever(emprestimosDtoBlackbird, emprestimos.stream().map(EmprestimoDTO::de).toList());
+    }
+
+    // O buffer é reaproveitado para que a alocação medida seja a da serialização
+    private int escrever(ObjectWriter writer, Object valor) throws IOException {
+        saida.reset();
+        writer.writeValue(saida, valor);
+        return saida.size();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(SerializacaoBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build()).run();
+    }
+}
@@ -0,0 +1,63 @@
+package br.csi.sistema_biblioteca.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UuidV7Test {
+
+    @Test
+    void versaoEVarianteSaoDaRfc9562() {
+        for (int i = 0; i < 1_000; i++) {
+            UUID uuid = UuidV7.gerar();
+            assertEquals(7, uuid.version());
+            assertEquals(2, uuid.variant());
+            assertEquals('7', uuid.toString().charAt(14));
+            assertTrue("89ab".indexOf(uuid.toString().charAt(19)) >= 0);
+        }
+    }
+
+    @Test
+    void primeiros48BitsSaoOInstanteEmMilissegundos() {
+        long antes = System.currentTimeMillis();
+        UUID uuid = UuidV7.gerar();
+        long depois = System.currentTimeMillis();
+
+        long instante = uuid.getMostSignificantBits() >>> 16;
+        assertTrue(instante >= antes && instante <= depois, "instante " + instante + " fora de [" + antes + ", " + depois + "]");
+    }
+
+    @Test
+    void geradosEmMilissegundosDiferentesFicamEmOrdem() throws InterruptedException {
+        UUID anterior = UuidV7.gerar();
+        for (int i = 0; i < 5; i++) {
+            Thread.sleep(2);
+            UUID atual = UuidV7.gerar();
+            // A ordem do texto é a mesma dos bytes, usada pelo índice do PostgreSQL
+            assertTrue(atual.toString().compareTo(anterior.toString()) > 0, atual + " deveria vir depois de " + anterior);
+            anterior = atual;
+        }
+    }
+
+    @Test
+    void instanteNuncaRecuaEntreChamadasSeguidas() {
+        long anterior = 0;
+        for (int i = 0; i < 10_000; i++) {
+            long instante = UuidV7.gerar().getMostSignificantBits() >>> 16;
+            assertTrue(instante >= anterior);
+            anterior = instante;
+        }
+    }
+
+    @Test
+    void naoRepete() {
+        Set<UUID> gerados = new HashSet<>();
+        for (int i = 0; i < 10_000; i++) {
+            assertTrue(gerados.add(UuidV7.gerar()));
+        }
+    }
+}
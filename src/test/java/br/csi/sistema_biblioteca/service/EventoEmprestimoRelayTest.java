@@ -0,0 +1,176 @@
+package br.csi.sistema_biblioteca.service;
+
+import br.csi.sistema_biblioteca.model.emprestimo.EventoEmprestimo;
+import br.csi.sistema_biblioteca.model.emprestimo.EventoEmprestimoRepository;
+import br.csi.sistema_biblioteca.model.emprestimo.TipoEventoEmprestimo;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.AbstractPlatformTransactionManager;
+import org.springframework.transaction.support.DefaultTransactionStatus;
+import org.springframework.transaction.support.SmartTransactionObject;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class EventoEmprestimoRelayTest {
+
+    private EventoEmprestimoRepository repository;
+    private TransacoesRegistradas transacoes;
+    private final List<Long> recebidos = new ArrayList<>();
+
+    private EventoEmprestimo primeiro;
+    private EventoEmprestimo segundo;
+    private EventoEmprestimo terceiro;
+    private EventoEmprestimo quarto;
+
+    @BeforeEach
+    void preparar() {
+        primeiro = evento(1L);
+        segundo = evento(2L);
+        terceiro = evento(3L);
+        quarto = evento(4L);
+
+        repository = mock(EventoEmprestimoRepository.class);
+        when(repository.findProximoPendenteParaDespacho()).thenReturn(
+                Optional.of(primeiro), Optional.of(segundo), Optional.of(terceiro), Optional.of(quarto),
+                Optional.empty());
+        transacoes = new TransacoesRegistradas();
+    }
+
+    @Test
+    void entregaTodosOsPendentesEmOrdemCadaUmNaSuaTransacao() {
+        despachar(evento -> recebidos.add(evento.getId()));
+
+        assertEquals(List.of(1L, 2L, 3L, 4L), recebidos);
+        assertNotNull(quarto.getProcessadoEm());
+        // quatro entregas e a última transação, que não encontra mais pendentes
+        assertEquals(5, transacoes.commits);
+        assertEquals(0, transacoes.rollbacks);
+    }
+
+    @Test
+    void falhaDeUmListenerNaoDesfazOsEventosJaEntregues() {
+        despachar(evento -> {
+            if (evento.getId() == 3L) {
+                throw new IllegalStateException("listener indisponível");
+            }
+            recebidos.add(evento.getId());
+        });
+
+        assertEquals(List.of(1L, 2L), recebidos);
+        assertNotNull(primeiro.getProcessadoEm());
+        assertNotNull(segundo.getProcessadoEm());
+        assertNull(terceiro.getProcessadoEm());
+        assertNull(quarto.getProcessadoEm());
+        assertEquals(2, transacoes.commits);
+        assertEquals(1, transacoes.rollbacks);
+        verify(repository, times(3)).findProximoPendenteParaDespacho();
+    }
+
+    @Test
+    void listenerQueMarcaRollbackOnlyInterrompeSoOEventoAtual() {
+        TransactionTemplate interno = new TransactionTemplate(transacoes);
+        despachar(evento -> interno.executeWithoutResult(status -> {
+            if (evento.getId() == 2L) {
+                status.setRollbackOnly();
+                return;
+            }
+            recebidos.add(evento.getId());
+        }));
+
+        assertEquals(List.of(1L), recebidos);
+        assertEquals(1, transacoes.commits);
+        assertEquals(1, transacoes.rollbacks);
+        verify(repository, times(2)).findProximoPendenteParaDespacho();
+    }
+
+    @Test
+    void respeitaOTamanhoDoLote() {
+        despachar(2, evento -> recebidos.add(evento.getId()));
+
+        assertEquals(List.of(1L, 2L), recebidos);
+        assertNull(terceiro.getProcessadoEm());
+    }
+
+    private void despachar(EventoEmprestimoListener listener) {
+        despachar(100, listener);
+    }
+
+    @SuppressWarnings("unchecked")
+    private void despachar(int tamanhoLote, EventoEmprestimoListener listener) {
+        ObjectProvider<EventoEmprestimoListener> listeners = mock(ObjectProvider.class);
+        when(listeners.orderedStream()).thenAnswer(invocacao -> Stream.of(listener));
+
+        EventoEmprestimoRelay relay = new EventoEmprestimoRelay(repository, listeners, new TransactionTemplate(transacoes));
+        ReflectionTestUtils.setField(relay, "tamanhoLote", tamanhoLote);
+        relay.despachar();
+    }
+
+    private static EventoEmprestimo evento(Long id) {
+        return new EventoEmprestimo(id, TipoEventoEmprestimo.EMPRESTIMO, id, 1L, 1L, LocalDateTime.now(), null);
+    }
+
+    // Gerenciador sem recurso real: conta commits e rollbacks das transações externas e
+    // propaga o rollback-only das participações internas como faria um proxy @Transactional.
+    private static class TransacoesRegistradas extends AbstractPlatformTransactionManager {
+
+        private int commits;
+        private int rollbacks;
+        private Transacao atual;
+
+        private static class Transacao implements SmartTransactionObject {
+            private boolean rollbackOnly;
+
+            @Override
+            public boolean isRollbackOnly() {
+                return rollbackOnly;
+            }
+
+            @Override
+            public void flush() {
+            }
+        }
+
+        @Override
+        protected Object doGetTransaction() {
+            return atual != null ? atual : new Transacao();
+        }
+
+        @Override
+        protected boolean isExistingTransaction(Object transaction) {
+            return atual != null && transaction == atual;
+        }
+
+        @Override
+        protected void doBegin(Object transaction, TransactionDefinition definition) {
+            atual = (Transacao) transaction;
+        }
+
+        @Override
+        protected void doCommit(DefaultTransactionStatus status) {
+            atual = null;
+            commits++;
+        }
+
+        @Override
+        protected void doRollback(DefaultTransactionStatus status) {
+            atual = null;
+            rollbacks++;
+        }
+
+        @Override
+        protected void doSetRollbackOnly(DefaultTransactionStatus status) {
+            ((Transacao) status.getTransaction()).rollbackOnly = true;
+        }
+    }
+}
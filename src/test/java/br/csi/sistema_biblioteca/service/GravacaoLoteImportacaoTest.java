@@ -0,0 +1,77 @@
+package br.csi.sistema_biblioteca.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Executa o SQL de gravação de lote do ImportadorLivros contra o banco configurado;
+// cada teste roda em uma transação desfeita ao final
+@SpringBootTest
+@Transactional
+class GravacaoLoteImportacaoTest {
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    private long categoria;
+
+    @BeforeEach
+    void preparar() {
+        jdbc.execute(ImportadorLivros.CRIAR_TABELA_TEMPORARIA);
+        categoria = jdbc.queryForObject("INSERT INTO categoria (nome) VALUES (?) RETURNING id_categoria",
+                Long.class, "importacao-" + UUID.randomUUID());
+    }
+
+    @Test
+    void uuidRepetidoNoArquivoGravaAPrimeiraLinha() {
+        UUID uuid = UUID.randomUUID();
+        linha(2, uuid, "Primeira", "{}");
+        linha(1, uuid, "Anterior no arquivo", "{}");
+        linha(3, uuid, "Terceira", "{}");
+
+        assertArrayEquals(new long[]{1, 0}, gravar());
+        assertEquals(List.of("Anterior no arquivo"),
+                jdbc.queryForList("SELECT titulo FROM livro WHERE uuid = ?", String.class, uuid));
+    }
+
+    @Test
+    void uuidJaCadastradoEhIgnorado() {
+        UUID uuid = UUID.randomUUID();
+        jdbc.update("INSERT INTO livro (uuid, titulo, autor) VALUES (?, 'Existente', 'Autor')", uuid);
+        linha(1, uuid, "Novo título", "{" + categoria + "}");
+
+        assertArrayEquals(new long[]{0, 0}, gravar());
+        assertEquals(List.of("Existente"),
+                jdbc.queryForList("SELECT titulo FROM livro WHERE uuid = ?", String.class, uuid));
+    }
+
+    @Test
+    void categoriaRepetidaNaLinhaGeraUmaAssociacao() {
+        UUID uuid = UUID.randomUUID();
+        linha(1, uuid, "Com categorias", "{" + categoria + "," + categoria + "}");
+        linha(2, UUID.randomUUID(), "Sem categorias", "{}");
+
+        assertArrayEquals(new long[]{2, 1}, gravar());
+        assertEquals(List.of(categoria), jdbc.queryForList(
+                "SELECT lc.id_categoria FROM livro_categoria lc JOIN livro l ON l.id_livro = lc.id_livro WHERE l.uuid = ?",
+                Long.class, uuid));
+    }
+
+    private void linha(long numero, UUID uuid, String titulo, String categorias) {
+        jdbc.update("INSERT INTO importacao_livro (linha, uuid, titulo, autor, ano_publicacao, categorias) " +
+                "VALUES (?, ?, ?, 'Autor', 2000, ?::bigint[])", numero, uuid, titulo, categorias);
+    }
+
+    private long[] gravar() {
+        return jdbc.queryForObject(ImportadorLivros.GRAVAR_LOTE,
+                (rs, i) -> new long[]{rs.getLong(1), rs.getLong(2)});
+    }
+}
@@ -0,0 +1,110 @@
+package br.csi.sistema_biblioteca.service;
+
+import br.csi.sistema_biblioteca.model.livro_categoria.LivroRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class IndiceCatalogoTest {
+
+    private IndiceCatalogo indice;
+
+    @BeforeEach
+    void preparar() {
+        LivroRepository repository = mock(LivroRepository.class);
+        when(repository.findDadosParaIndice()).thenReturn(List.of(
+                livro(1L, "Dom Casmurro", "Machado de Assis"),
+                livro(2L, "Memórias Póstumas de Brás Cubas", "Machado de Assis"),
+                livro(3L, "Iracema", "José de Alencar"),
+                livro(4L, "O Guarani", "José de Alencar"),
+                livro(5L, "Macunaíma", "Mário de Andrade")));
+        when(repository.findNomesCategoriasPorLivro()).thenReturn(List.of(
+                new Object[]{3L, "Romance Indianista"},
+                new Object[]{4L, "Romance Indianista"}));
+
+        indice = new IndiceCatalogo(repository);
+        indice.reconstruir();
+    }
+
+    @Test
+    void tokenizarRemoveAcentosMaiusculasEPontuacao() {
+        assertEquals(List.of("memorias", "postumas", "de", "bras", "cubas"),
+                IndiceCatalogo.tokenizar("Memórias  Póstumas de Brás-Cubas!"));
+        assertEquals(List.of("1984", "orwell"), IndiceCatalogo.tokenizar("1984 (Orwell)"));
+        assertEquals(List.of(), IndiceCatalogo.tokenizar("   "));
+        assertEquals(List.of(), IndiceCatalogo.tokenizar(null));
+    }
+
+    @Test
+    void intersectarMantemSoOsIdsPresentesEmTodasAsListas() {
+        List<int[]> listas = new ArrayList<>(List.of(
+                new int[]{1, 2, 3, 5, 8, 13},
+                new int[]{2, 3, 5, 7},
+                new int[]{3, 5, 9}));
+
+        assertArrayEquals(new int[]{3, 5}, IndiceCatalogo.intersectar(listas));
+    }
+
+    @Test
+    void intersectarComListaVaziaDevolveVazio() {
+        List<int[]> listas = new ArrayList<>(List.of(new int[]{1, 2, 3}, new int[0]));
+
+        assertArrayEquals(new int[0], IndiceCatalogo.intersectar(listas));
+    }
+
+    @Test
+    void todosOsTermosPrecisamAparecer() {
+        assertEquals(List.of(1L, 2L), ids(indice.buscar("machado assis", false, 10)));
+        assertEquals(List.of(2L), ids(indice.buscar("machado bras", false, 10)));
+        assertEquals(List.of(3L, 4L), ids(indice.buscar("indianista alencar", false, 10)));
+        assertEquals(List.of(), ids(indice.buscar("machado alencar", false, 10)));
+    }
+
+    @Test
+    void buscaIgnoraAcentosEPalavrasComuns() {
+        assertEquals(List.of(2L), ids(indice.buscar("memorias postumas de bras", false, 10)));
+        assertEquals(List.of(5L), ids(indice.buscar("MACUNAÍMA", false, 10)));
+    }
+
+    @Test
+    void ultimoTermoCasaComoPrefixo() {
+        assertEquals(List.of(5L), ids(indice.buscar("macu", true, 10)));
+        assertEquals(List.of(1L, 2L, 5L), ids(indice.buscar("mac", true, 10)));
+        assertEquals(List.of(), ids(indice.buscar("macu", false, 10)));
+    }
+
+    @Test
+    void prefixoCurtoEhBuscadoComoTermoExato() {
+        // "ma" teria casado com machado, macunaima e mario
+        assertEquals(List.of(), ids(indice.buscar("ma", true, 10)));
+        assertEquals(List.of(), ids(indice.buscar("jose ir", true, 10)));
+        assertEquals(List.of(3L), ids(indice.buscar("jose ira", true, 10)));
+    }
+
+    @Test
+    void respeitaOLimite() {
+        assertEquals(List.of(1L), ids(indice.buscar("machado", false, 1)));
+    }
+
+    @Test
+    void livroRemovidoSaiDasBuscas() {
+        indice.remover(1L);
+
+        assertEquals(List.of(2L), ids(indice.buscar("machado", false, 10)));
+        assertEquals(List.of(), ids(indice.buscar("casmurro", false, 10)));
+    }
+
+    private static Object[] livro(Long id, String titulo, String autor) {
+        return new Object[]{id, UUID.randomUUID(), titulo, autor};
+    }
+
+    private static List<Long> ids(List<IndiceCatalogo.ResultadoBusca> resultados) {
+        return resultados.stream().map(IndiceCatalogo.ResultadoBusca::id).toList();
+    }
+}
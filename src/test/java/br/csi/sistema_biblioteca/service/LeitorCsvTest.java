@@ -0,0 +1,94 @@
+package br.csi.sistema_biblioteca.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LeitorCsvTest {
+
+    @Test
+    void separaCamposEContaLinhas() throws IOException {
+        ImportadorLivros.LeitorCsv csv = leitor("titulo,autor\nDom Casmurro,Machado de Assis\nIracema,José de Alencar\n");
+
+        assertEquals(List.of("titulo", "autor"), csv.proximo());
+        assertEquals(1, csv.linhaDoRegistro());
+        assertEquals(List.of("Dom Casmurro", "Machado de Assis"), csv.proximo());
+        assertEquals(2, csv.linhaDoRegistro());
+        assertEquals(List.of("Iracema", "José de Alencar"), csv.proximo());
+        assertEquals(3, csv.linhaDoRegistro());
+        assertNull(csv.proximo());
+    }
+
+    @Test
+    void virgulaEntreAspasFicaNoCampo() throws IOException {
+        ImportadorLivros.LeitorCsv csv = leitor("\"Memórias, Póstumas\",\"Assis, Machado de\"\n");
+
+        assertEquals(List.of("Memórias, Póstumas", "Assis, Machado de"), csv.proximo());
+    }
+
+    @Test
+    void aspasDuplicadasViramUmaAspa() throws IOException {
+        ImportadorLivros.LeitorCsv csv = leitor("\"O \"\"Alienista\"\"\",\"\"\"\"\n");
+
+        assertEquals(List.of("O \"Alienista\"", "\""), csv.proximo());
+    }
+
+    @Test
+    void quebraDeLinhaEntreAspasNaoEncerraORegistro() throws IOException {
+        ImportadorLivros.LeitorCsv csv = leitor("\"Primeira linha\nSegunda linha\",Autor\nOutro,Autor\n");
+
+        assertEquals(List.of("Primeira linha\nSegunda linha", "Autor"), csv.proximo());
+        assertEquals(1, csv.linhaDoRegistro());
+        assertEquals(List.of("Outro", "Autor"), csv.proximo());
+        assertEquals(3, csv.linhaDoRegistro());
+    }
+
+    @Test
+    void crlfECrSozinhoEncerramORegistro() throws IOException {
+        ImportadorLivros.LeitorCsv csv = leitor("a,b\r\nc,d\re,f\r\n\"g\r\nh\",i\r\n");
+
+        assertEquals(List.of("a", "b"), csv.proximo());
+        assertEquals(1, csv.linhaDoRegistro());
+        assertEquals(List.of("c", "d"), csv.proximo());
+        assertEquals(2, csv.linhaDoRegistro());
+        assertEquals(List.of("e", "f"), csv.proximo());
+        assertEquals(3, csv.linhaDoRegistro());
+        assertEquals(List.of("g\nh", "i"), csv.proximo());
+        assertEquals(4, csv.linhaDoRegistro());
+        assertNull(csv.proximo());
+    }
+
+    @Test
+    void linhasEmBrancoSaoIgnoradasSemPerderANumeracao() throws IOException {
+        ImportadorLivros.LeitorCsv csv = leitor("a,b\n\n\r\nc,d");
+
+        assertEquals(List.of("a", "b"), csv.proximo());
+        assertEquals(List.of("c", "d"), csv.proximo());
+        assertEquals(4, csv.linhaDoRegistro());
+        assertNull(csv.proximo());
+    }
+
+    @Test
+    void camposVaziosSaoPreservados() throws IOException {
+        ImportadorLivros.LeitorCsv csv = leitor("a,,\"\",\n");
+
+        assertEquals(List.of("a", "", "", ""), csv.proximo());
+    }
+
+    @Test
+    void aspasNaoFechadasFalham() throws IOException {
+        ImportadorLivros.LeitorCsv csv = leitor("ok,ok\n\"sem fim,autor\n");
+
+        csv.proximo();
+        IOException erro = assertThrows(IOException.class, csv::proximo);
+        assertTrue(erro.getMessage().contains("linha 2"));
+    }
+
+    private static ImportadorLivros.LeitorCsv leitor(String texto) {
+        return new ImportadorLivros.LeitorCsv(new StringReader(texto));
+    }
+}
@@ -0,0 +1,79 @@
+-- Compara inserções com UUID v4 (gen_random_uuid) e v7 (uuid_generate_v7, criada no V13)
+-- em tabelas com o mesmo formato de emprestimo: vazão e tamanho final do índice UNIQUE de uuid.
+--
+-- Rode contra um banco já migrado (a função uuid_generate_v7 precisa existir):
+--   psql -h localhost -p 5433 -U postgres -d POOW2 -v linhas=2000000 -f src/test/resources/benchmark/insercao_uuid.sql
+--
+-- As tabelas ficam no schema benchmark_uuid, removido no fim. Para ver o efeito quando o índice
+-- não cabe em memória, use mais linhas que o shared_buffers comporta (o índice v4 é lido em
+-- páginas aleatórias, o v7 só na última página).
+
+\set ON_ERROR_STOP on
+\if :{?linhas}
+\else
+\set linhas 1000000
+\endif
+\set lote 1000
+
+DROP SCHEMA IF EXISTS benchmark_uuid CASCADE;
+CREATE SCHEMA benchmark_uuid;
+
+CREATE TABLE benchmark_uuid.emprestimo_v4 (
+    id_emprestimo BIGSERIAL PRIMARY KEY,
+    uuid UUID NOT NULL UNIQUE DEFAULT gen_random_uuid(),
+    data_emprestimo TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    data_devolucao_prevista TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP + INTERVAL '14 days',
+    id_cliente BIGINT NOT NULL,
+    id_livro BIGINT NOT NULL,
+    id_funcionario BIGINT NOT NULL
+);
+
+CREATE TABLE benchmark_uuid.emprestimo_v7 (LIKE benchmark_uuid.emprestimo_v4 INCLUDING ALL);
+ALTER TABLE benchmark_uuid.emprestimo_v7 ALTER COLUMN uuid SET DEFAULT uuid_generate_v7();
+
+CREATE TABLE benchmark_uuid.resultado (
+    versao TEXT PRIMARY KEY,
+    linhas BIGINT NOT NULL,
+    segundos NUMERIC NOT NULL
+);
+
+-- Insere em lotes de :lote linhas, como uma carga contínua de empréstimos
+CREATE FUNCTION benchmark_uuid.inserir(versao TEXT, linhas BIGINT, lote INTEGER)
+    RETURNS void AS $$
+DECLARE
+    inicio TIMESTAMPTZ := clock_timestamp();
+    feitas BIGINT := 0;
+BEGIN
+    WHILE feitas < linhas LOOP
+        EXECUTE format('INSERT INTO benchmark_uuid.%I (id_cliente, id_livro, id_funcionario) ' ||
+                       'SELECT g %% 5000, g %% 200000, 1 FROM generate_series(1, %s) g',
+                       'emprestimo_' || versao, LEAST(lote, linhas - feitas));
+        feitas := feitas + LEAST(lote, linhas - feitas);
+    END LOOP;
+    INSERT INTO benchmark_uuid.resultado
+    VALUES (versao, linhas, EXTRACT(EPOCH FROM clock_timestamp() - inicio));
+END;
+$$ LANGUAGE plpgsql;
+
+SELECT benchmark_uuid.inserir('v4', :linhas, :lote);
+SELECT benchmark_uuid.inserir('v7', :linhas, :lote);
+
+ANALYZE benchmark_uuid.emprestimo_v4;
+ANALYZE benchmark_uuid.emprestimo_v7;
+
+SELECT r.versao,
+       r.linhas,
+       round(r.segundos, 2) AS segundos,
+       round(r.linhas / r.segundos) AS linhas_por_segundo,
+       pg_size_pretty(pg_relation_size(format('benchmark_uuid.emprestimo_%s_uuid_key', r.versao)::regclass)) AS indice_uuid,
+       pg_size_pretty(pg_relation_size(format('benchmark_uuid.emprestimo_%s', r.versao)::regclass)) AS tabela
+FROM benchmark_uuid.resultado r
+ORDER BY r.versao;
+
+-- Com a extensão pgstattuple instalada, avg_leaf_density mostra o preenchimento das folhas
+-- (divisões de página no meio do índice deixam as folhas do v4 mais vazias que as do v7):
+--   SELECT 'v4', avg_leaf_density, leaf_fragmentation FROM pgstatindex('benchmark_uuid.emprestimo_v4_uuid_key')
+--   UNION ALL
+--   SELECT 'v7', avg_leaf_density, leaf_fragmentation FROM pgstatindex('benchmark_uuid.emprestimo_v7_uuid_key');
+
+DROP SCHEMA benchmark_uuid CASCADE;